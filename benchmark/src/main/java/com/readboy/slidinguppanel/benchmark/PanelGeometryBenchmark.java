@@ -0,0 +1,100 @@
+package com.readboy.slidinguppanel.benchmark;
+
+import com.readboy.slidinguppanel.views.PanelGeometry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Panel math run by every drag step and layout pass of SlidingUpLayout.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PanelGeometryBenchmark {
+
+    /**
+     * Number of move events in the synthetic drag.
+     */
+    private static final int DRAG_EVENTS = 300;
+
+    @Param({"2", "8", "32"})
+    public int weightedChildren;
+
+    private final PanelGeometry mGeometry = new PanelGeometry();
+    private final int[] mDragDeltas = new int[DRAG_EVENTS];
+    private float[] mWeights;
+
+    @Setup
+    public void setUp() {
+        mGeometry.setBounds(1800, 150, 1200, 48);
+
+        // Up and down strokes with jitter, as a finger moves the dragger.
+        final Random random = new Random(42);
+        for (int i = 0; i < DRAG_EVENTS; i++) {
+            final int direction = (i / 50) % 2 == 0 ? -1 : 1;
+            mDragDeltas[i] = direction * (4 + random.nextInt(24));
+        }
+
+        mWeights = new float[weightedChildren];
+        for (int i = 0; i < weightedChildren; i++) {
+            mWeights[i] = 1 + i % 3;
+        }
+    }
+
+    /**
+     * Clamp every step of a 300 event drag, as slideUp() does.
+     */
+    @Benchmark
+    public int drag() {
+        int top = mGeometry.getMaxTop();
+        for (int dy : mDragDeltas) {
+            top = mGeometry.clampTop(top + dy);
+        }
+        return top + mGeometry.getHeightForTop(top);
+    }
+
+    /**
+     * Hand out the extra height among the weighted children, as measureVertical() does.
+     */
+    @Benchmark
+    public int distributeWeights() {
+        float weightSum = 0;
+        for (float weight : mWeights) weightSum += weight;
+
+        mGeometry.startWeightDistribution(1337, weightSum);
+        int total = 0;
+        for (float weight : mWeights) {
+            total += mGeometry.nextWeightShare(weight);
+        }
+        return total;
+    }
+
+    /**
+     * Place the children along both axes, as layoutVertical() does.
+     */
+    @Benchmark
+    public int gravity() {
+        int childTop = PanelGeometry.getMajorAxisStart(PanelGeometry.GRAVITY_BOTTOM, 12, 1800, 1500);
+        for (int i = 0; i < weightedChildren; i++) {
+            childTop += PanelGeometry.getMinorAxisStart(PanelGeometry.GRAVITY_CENTER_HORIZONTAL,
+                    12, 1056, 1068, 400 + i, 4, 4);
+        }
+        return childTop;
+    }
+}
@@ -0,0 +1,84 @@
+package com.readboy.slidinguppanel.benchmark;
+
+import com.readboy.slidinguppanel.views.PanelSnapTable;
+import com.readboy.slidinguppanel.views.PanelSpring;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Work done when the panel is released: picking the snap state and stepping the spring to it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PanelSettleBenchmark {
+
+    private static final long FRAME_NANOS = 16666667L;
+
+    @Param({"0", "16"})
+    public int snapHeights;
+
+    private final PanelSnapTable mTable = new PanelSnapTable();
+    private final PanelSpring mSpring = new PanelSpring();
+    private int mSlideBottom = 1800;
+
+    @Setup
+    public void setUp() {
+        final int[] heights = new int[snapHeights];
+        for (int i = 0; i < heights.length; i++) {
+            heights[i] = 200 + i * 60;
+        }
+        mTable.setSnapToBounds(true);
+        mTable.setAnchorFraction(0.5f);
+        mTable.setSnapHeights(heights);
+        mTable.resolve(mSlideBottom, 150, 1200, 48);
+    }
+
+    /**
+     * Resolve with unchanged bounds, what every layout pass of a drag costs.
+     */
+    @Benchmark
+    public boolean resolveUnchanged() {
+        return mTable.resolve(mSlideBottom, 150, 1200, 48);
+    }
+
+    /**
+     * Resolve after the bounds changed, the table is rebuilt and sorted.
+     */
+    @Benchmark
+    public boolean resolveChanged() {
+        mSlideBottom = mSlideBottom == 1800 ? 1801 : 1800;
+        return mTable.resolve(mSlideBottom, 150, 1200, 48);
+    }
+
+    @Benchmark
+    public int findSnapTop() {
+        return mTable.findSnapTop(1000, 2500) + mTable.findSnapTop(1000, 0);
+    }
+
+    /**
+     * Step the spring frame by frame from a fling until it rests.
+     */
+    @Benchmark
+    public int springSettle() {
+        mSpring.start(1600, -4000, 552);
+        int frames = 1;
+        while (!mSpring.step(FRAME_NANOS)) frames++;
+        return frames;
+    }
+}
@@ -0,0 +1,104 @@
+package com.readboy.slidinguppanel.views;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.util.SparseArray;
+
+import java.util.WeakHashMap;
+
+/**
+ * Dragger drawables of {@link SlidingUpLayout} resolved once per theme.
+ *
+ * <p>The {@link Drawable.ConstantState} and the intrinsic size of a drawable resource are
+ * kept after its first lookup, so a new layout clones the drawable from that state instead
+ * of loading the resource again, and reading the default dragger size allocates nothing.
+ * The drawables are resolved with the theme of the context, and the entries of a theme are
+ * dropped when the configuration of its resources changes, such as the density, the
+ * orientation or the night mode.</p>
+ */
+final class DraggerCache {
+
+    private static final class Entry {
+        Drawable.ConstantState state;
+        int width;
+        int height;
+    }
+
+    private static final class ThemeEntries {
+        final Configuration configuration = new Configuration();
+        final SparseArray<Entry> entries = new SparseArray<Entry>();
+    }
+
+    private static final WeakHashMap<Resources.Theme, ThemeEntries> sThemes =
+            new WeakHashMap<Resources.Theme, ThemeEntries>();
+
+    private DraggerCache() {
+    }
+
+    /**
+     * @return a new drawable for {@code resId}, sharing its constant state with the other ones
+     */
+    static synchronized Drawable getDrawable(Context context, int resId) {
+        final Entry entry = getEntry(context, resId);
+        if (entry.state != null) {
+            return Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP
+                    ? entry.state.newDrawable(context.getResources(), context.getTheme())
+                    : entry.state.newDrawable(context.getResources());
+        }
+
+        // Drawables without a constant state can not be shared, load them each time.
+        return loadDrawable(context, resId);
+    }
+
+    /**
+     * @return the intrinsic width of the drawable {@code resId}
+     */
+    static synchronized int getIntrinsicWidth(Context context, int resId) {
+        return getEntry(context, resId).width;
+    }
+
+    /**
+     * @return the intrinsic height of the drawable {@code resId}
+     */
+    static synchronized int getIntrinsicHeight(Context context, int resId) {
+        return getEntry(context, resId).height;
+    }
+
+    private static Entry getEntry(Context context, int resId) {
+        final Resources.Theme theme = context.getTheme();
+        final Configuration configuration = context.getResources().getConfiguration();
+
+        ThemeEntries themeEntries = sThemes.get(theme);
+        if (themeEntries == null) {
+            themeEntries = new ThemeEntries();
+            themeEntries.configuration.setTo(configuration);
+            sThemes.put(theme, themeEntries);
+        } else if (!themeEntries.configuration.equals(configuration)) {
+            themeEntries.entries.clear();
+            themeEntries.configuration.setTo(configuration);
+        }
+
+        Entry entry = themeEntries.entries.get(resId);
+        if (entry == null) {
+            final Drawable drawable = loadDrawable(context, resId);
+            entry = new Entry();
+            entry.state = drawable.getConstantState();
+            entry.width = drawable.getIntrinsicWidth();
+            entry.height = drawable.getIntrinsicHeight();
+            themeEntries.entries.put(resId, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Theme attributes in drawables are only resolved from Lollipop on.
+     */
+    private static Drawable loadDrawable(Context context, int resId) {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP
+                ? context.getResources().getDrawable(resId, context.getTheme())
+                : context.getResources().getDrawable(resId);
+    }
+}
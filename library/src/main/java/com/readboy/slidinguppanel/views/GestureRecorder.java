@@ -0,0 +1,145 @@
+package com.readboy.slidinguppanel.views;
+
+import android.view.MotionEvent;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Records the {@link MotionEvent} stream reaching a {@link SlidingUpLayout} in a compact
+ * binary format, see {@link SlidingUpLayout#setGestureRecorder(GestureRecorder)}. The
+ * recording can be attached to a bug report and played back by {@link GestureReplayer}.
+ *
+ * <p>Only the first pointer is kept, the layout does not track any other. The format is
+ * big-endian:</p>
+ * <pre>
+ * header  int magic 'SUGR', byte version
+ * event   byte action, with {@link #FLAG_OFFSET} set when an offset follows
+ *         [float offsetX, float offsetY]  raw minus local coordinates, when it changed
+ *         varint sample count, the historical samples followed by the current one
+ * sample  varint milliseconds since the previous sample, float rawX, float rawY
+ * </pre>
+ */
+public class GestureRecorder {
+
+    static final int MAGIC = 0x53554752;
+    static final int VERSION = 1;
+
+    /**
+     * Set on the action byte of an event that is followed by a new offset.
+     */
+    static final int FLAG_OFFSET = 0x80;
+
+    private byte[] mBuffer = new byte[1024];
+    private int mSize;
+    private int mEventCount;
+
+    private boolean mHasOffset;
+    private float mOffsetX;
+    private float mOffsetY;
+    private long mLastTime;
+
+    public GestureRecorder() {
+        writeHeader();
+    }
+
+    /**
+     * Append {@code event} to the recording, it is not kept.
+     */
+    public void record(MotionEvent event) {
+        final float offsetX = event.getRawX() - event.getX();
+        final float offsetY = event.getRawY() - event.getY();
+        final boolean offsetChanged = !mHasOffset || offsetX != mOffsetX || offsetY != mOffsetY;
+
+        writeByte(event.getActionMasked() | (offsetChanged ? FLAG_OFFSET : 0));
+        if (offsetChanged) {
+            writeFloat(offsetX);
+            writeFloat(offsetY);
+            mHasOffset = true;
+            mOffsetX = offsetX;
+            mOffsetY = offsetY;
+        }
+
+        final int historySize = event.getHistorySize();
+        // The first sample is the time origin of the recording.
+        if (mEventCount == 0) mLastTime = historySize > 0 ? event.getHistoricalEventTime(0) : event.getEventTime();
+
+        writeVarInt(historySize + 1);
+        for (int i = 0; i < historySize; i++) {
+            writeSample(event.getHistoricalEventTime(i),
+                    event.getHistoricalX(i) + offsetX, event.getHistoricalY(i) + offsetY);
+        }
+        writeSample(event.getEventTime(), event.getRawX(), event.getRawY());
+        mEventCount++;
+    }
+
+    /**
+     * @return number of events recorded since the last {@link #reset()}
+     */
+    public int getEventCount() {
+        return mEventCount;
+    }
+
+    /**
+     * Drop every recorded event.
+     */
+    public void reset() {
+        mSize = 0;
+        mEventCount = 0;
+        mHasOffset = false;
+        writeHeader();
+    }
+
+    /**
+     * @return a copy of the recording
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(mBuffer, mSize);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(mBuffer, 0, mSize);
+    }
+
+    private void writeHeader() {
+        writeInt(MAGIC);
+        writeByte(VERSION);
+    }
+
+    private void writeSample(long time, float rawX, float rawY) {
+        // Event times are monotonic, clamp anyway so that the delta always fits a varint.
+        final long delta = Math.max(0, Math.min(Integer.MAX_VALUE, time - mLastTime));
+        mLastTime = time;
+        writeVarInt((int) delta);
+        writeFloat(rawX);
+        writeFloat(rawY);
+    }
+
+    private void writeFloat(float value) {
+        writeInt(Float.floatToIntBits(value));
+    }
+
+    private void writeInt(int value) {
+        writeByte(value >>> 24);
+        writeByte(value >>> 16);
+        writeByte(value >>> 8);
+        writeByte(value);
+    }
+
+    /**
+     * Write a non-negative value 7 bits at a time, the high bit marks that more bytes follow.
+     */
+    private void writeVarInt(int value) {
+        while ((value & ~0x7f) != 0) {
+            writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        writeByte(value);
+    }
+
+    private void writeByte(int value) {
+        if (mSize == mBuffer.length) mBuffer = Arrays.copyOf(mBuffer, mSize * 2);
+        mBuffer[mSize++] = (byte) value;
+    }
+}
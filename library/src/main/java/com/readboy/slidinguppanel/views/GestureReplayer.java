@@ -0,0 +1,260 @@
+package com.readboy.slidinguppanel.views;
+
+import android.view.MotionEvent;
+import android.view.View;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Plays a recording of {@link GestureRecorder} back into a {@link SlidingUpLayout} on a
+ * virtual clock, so that a drag, fling and settle run the same way every time.
+ *
+ * <p>The clock advances one frame interval at a time. Each frame first dispatches the
+ * events that are due, then runs the frame callbacks of the layout and its pending layout
+ * pass. The release settles the way it does on the device, with the spring, or with the
+ * scroller and the bounce animator, all stepped by the same clock, and the replay ends once
+ * the panel has settled. Must be called on the thread that owns the layout.</p>
+ */
+public class GestureReplayer {
+
+    public static final int DEFAULT_MAX_SETTLE_FRAMES = 600;
+
+    private final int mEventCount;
+    private final int[] mActions;
+    private final float[] mOffsetsX;
+    private final float[] mOffsetsY;
+    private final int[] mSampleEnds;
+
+    private final long[] mSampleTimes;
+    private final float[] mSamplesX;
+    private final float[] mSamplesY;
+
+    private long mFrameIntervalNanos = SlidingUpLayout.DEFAULT_FRAME_INTERVAL_NANOS;
+    private int mMaxSettleFrames = DEFAULT_MAX_SETTLE_FRAMES;
+    private long mTimeNanos;
+    private long mDownTime;
+
+    /**
+     * @param recording bytes written by {@link GestureRecorder}
+     * @throws IllegalArgumentException if {@code recording} is not a valid recording
+     */
+    public GestureReplayer(byte[] recording) {
+        final Reader reader = new Reader(recording);
+        if (reader.readInt() != GestureRecorder.MAGIC) {
+            throw new IllegalArgumentException("Not a gesture recording");
+        }
+        final int version = reader.readByte();
+        if (version != GestureRecorder.VERSION) {
+            throw new IllegalArgumentException("Unsupported gesture recording version: " + version);
+        }
+
+        // A sample takes at least 9 bytes, an event at least one sample.
+        final int capacity = recording.length / 9;
+        int[] actions = new int[capacity];
+        float[] offsetsX = new float[capacity];
+        float[] offsetsY = new float[capacity];
+        int[] sampleEnds = new int[capacity];
+        long[] sampleTimes = new long[capacity];
+        float[] samplesX = new float[capacity];
+        float[] samplesY = new float[capacity];
+
+        int eventCount = 0;
+        int sampleCount = 0;
+        long time = 0;
+        float offsetX = 0;
+        float offsetY = 0;
+        while (reader.hasMore()) {
+            final int action = reader.readByte();
+            if ((action & GestureRecorder.FLAG_OFFSET) != 0) {
+                offsetX = reader.readFloat();
+                offsetY = reader.readFloat();
+            } else if (eventCount == 0) {
+                throw new IllegalArgumentException("Gesture recording starts without an offset");
+            }
+
+            final int samples = reader.readVarInt();
+            if (samples < 1) throw new IllegalArgumentException("Event without samples: " + eventCount);
+            for (int i = 0; i < samples; i++) {
+                time += reader.readVarInt();
+                sampleTimes[sampleCount] = time;
+                samplesX[sampleCount] = reader.readFloat();
+                samplesY[sampleCount] = reader.readFloat();
+                sampleCount++;
+            }
+
+            actions[eventCount] = action & ~GestureRecorder.FLAG_OFFSET;
+            offsetsX[eventCount] = offsetX;
+            offsetsY[eventCount] = offsetY;
+            sampleEnds[eventCount] = sampleCount;
+            eventCount++;
+        }
+
+        mEventCount = eventCount;
+        mActions = actions;
+        mOffsetsX = offsetsX;
+        mOffsetsY = offsetsY;
+        mSampleEnds = sampleEnds;
+        mSampleTimes = sampleTimes;
+        mSamplesX = samplesX;
+        mSamplesY = samplesY;
+    }
+
+    /**
+     * @param in stream positioned at a recording of {@link GestureRecorder}, read to its end
+     * @throws IllegalArgumentException if the stream does not hold a valid recording
+     */
+    public static GestureReplayer read(InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        int count;
+        while ((count = in.read(buffer)) != -1) {
+            out.write(buffer, 0, count);
+        }
+        return new GestureReplayer(out.toByteArray());
+    }
+
+    /**
+     * @param frameIntervalNanos time the virtual clock advances by per frame
+     */
+    public void setFrameIntervalNanos(long frameIntervalNanos) {
+        if (frameIntervalNanos <= 0) {
+            throw new IllegalArgumentException("Frame interval must be positive: " + frameIntervalNanos);
+        }
+        mFrameIntervalNanos = frameIntervalNanos;
+    }
+
+    public long getFrameIntervalNanos() {
+        return mFrameIntervalNanos;
+    }
+
+    /**
+     * @param frames frames run after the last event at most, in case the panel never settles
+     */
+    public void setMaxSettleFrames(int frames) {
+        mMaxSettleFrames = frames;
+    }
+
+    public int getMaxSettleFrames() {
+        return mMaxSettleFrames;
+    }
+
+    /**
+     * @return number of events in the recording
+     */
+    public int getEventCount() {
+        return mEventCount;
+    }
+
+    /**
+     * @return time of the virtual clock, 0 at the first event of the recording
+     */
+    public long getTimeNanos() {
+        return mTimeNanos;
+    }
+
+    /**
+     * Dispatch the whole recording to {@code layout} and run frames until the panel has settled.
+     *
+     * @return number of frames run
+     */
+    public int replay(SlidingUpLayout layout) {
+        mTimeNanos = 0;
+        mDownTime = 0;
+        int frames = 0;
+
+        layout.setVirtualFrames(true);
+        try {
+            int event = 0;
+            while (event < mEventCount) {
+                while (event < mEventCount && getEventTimeNanos(event) <= mTimeNanos) {
+                    dispatchEvent(layout, event++);
+                }
+                runFrame(layout);
+                frames++;
+            }
+
+            for (int i = 0; i < mMaxSettleFrames && layout.hasPendingFrame(); i++) {
+                runFrame(layout);
+                frames++;
+            }
+        } finally {
+            layout.setVirtualFrames(false);
+        }
+        return frames;
+    }
+
+    private long getEventTimeNanos(int event) {
+        return mSampleTimes[mSampleEnds[event] - 1] * 1000000L;
+    }
+
+    private void runFrame(SlidingUpLayout layout) {
+        layout.doVirtualFrame(mTimeNanos);
+
+        // Stands in for the traversal of the view root, at the size the layout already has.
+        if (layout.isLayoutRequested()) {
+            layout.measure(View.MeasureSpec.makeMeasureSpec(layout.getWidth(), View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(layout.getHeight(), View.MeasureSpec.EXACTLY));
+            layout.layout(layout.getLeft(), layout.getTop(), layout.getRight(), layout.getBottom());
+        }
+        mTimeNanos += mFrameIntervalNanos;
+    }
+
+    private void dispatchEvent(SlidingUpLayout layout, int event) {
+        final int start = event == 0 ? 0 : mSampleEnds[event - 1];
+        final int end = mSampleEnds[event];
+        final int action = mActions[event];
+        if (action == MotionEvent.ACTION_DOWN) mDownTime = mSampleTimes[end - 1];
+
+        // Samples are in raw coordinates, the offset brings them into the layout.
+        final MotionEvent ev = MotionEvent.obtain(mDownTime, mSampleTimes[start], action,
+                mSamplesX[start], mSamplesY[start], 0);
+        for (int i = start + 1; i < end; i++) {
+            ev.addBatch(mSampleTimes[i], mSamplesX[i], mSamplesY[i], 1f, 1f, 0);
+        }
+        ev.offsetLocation(-mOffsetsX[event], -mOffsetsY[event]);
+
+        layout.dispatchTouchEvent(ev);
+        ev.recycle();
+    }
+
+    /**
+     * Big-endian reader over a recording, failing with {@link IllegalArgumentException} when it is cut short.
+     */
+    private static final class Reader {
+        private final byte[] mData;
+        private int mPosition;
+
+        Reader(byte[] data) {
+            mData = data;
+        }
+
+        boolean hasMore() {
+            return mPosition < mData.length;
+        }
+
+        int readByte() {
+            if (mPosition >= mData.length) throw new IllegalArgumentException("Gesture recording is truncated");
+            return mData[mPosition++] & 0xff;
+        }
+
+        int readInt() {
+            return readByte() << 24 | readByte() << 16 | readByte() << 8 | readByte();
+        }
+
+        float readFloat() {
+            return Float.intBitsToFloat(readInt());
+        }
+
+        int readVarInt() {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                final int b = readByte();
+                value |= (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IllegalArgumentException("Malformed varint in gesture recording");
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.readboy.slidinguppanel.views;
+
+import android.util.Log;
+
+/**
+ * Largest number of measure, layout and draw passes a {@link SlidingUpLayout} may run for one
+ * drag, fling, nested scroll or programmatic move, checked against its {@link PanelMetrics}
+ * once the panel has settled, see {@link SlidingUpLayout#setLayoutBudget(LayoutBudget)}.
+ *
+ * <p>A budget that is exceeded is only logged, the check runs from layout and animation
+ * callbacks that must not fail. Tests assert a budget with {@link #isMet(PanelMetrics)} on
+ * the metrics reported to {@link SlidingUpLayout.OnGestureMetricsListener}.</p>
+ */
+public class LayoutBudget {
+
+    /**
+     * Limit that is never exceeded.
+     */
+    public static final int UNLIMITED = -1;
+
+    private final int mMaxMeasures;
+    private final int mMaxLayouts;
+    private final int mMaxChildMeasures;
+    private final int mMaxChildDraws;
+
+    /**
+     * Budget without a limit on the draws, see {@link #LayoutBudget(int, int, int, int)}.
+     */
+    public LayoutBudget(int maxMeasures, int maxLayouts, int maxChildMeasures) {
+        this(maxMeasures, maxLayouts, maxChildMeasures, UNLIMITED);
+    }
+
+    /**
+     * @param maxMeasures measure passes of the layout, or {@link #UNLIMITED}
+     * @param maxLayouts layout passes of the layout, or {@link #UNLIMITED}
+     * @param maxChildMeasures measures of direct children, or {@link #UNLIMITED}
+     * @param maxChildDraws draws of direct children, or {@link #UNLIMITED}
+     */
+    public LayoutBudget(int maxMeasures, int maxLayouts, int maxChildMeasures, int maxChildDraws) {
+        mMaxMeasures = maxMeasures;
+        mMaxLayouts = maxLayouts;
+        mMaxChildMeasures = maxChildMeasures;
+        mMaxChildDraws = maxChildDraws;
+    }
+
+    public int getMaxMeasures() {
+        return mMaxMeasures;
+    }
+
+    public int getMaxLayouts() {
+        return mMaxLayouts;
+    }
+
+    public int getMaxChildMeasures() {
+        return mMaxChildMeasures;
+    }
+
+    public int getMaxChildDraws() {
+        return mMaxChildDraws;
+    }
+
+    /**
+     * @return whether {@code metrics} stays within every limit of this budget
+     */
+    public boolean isMet(PanelMetrics metrics) {
+        return within(metrics.getMeasureCount(), mMaxMeasures)
+                && within(metrics.getLayoutCount(), mMaxLayouts)
+                && within(metrics.getChildMeasureCount(), mMaxChildMeasures)
+                && within(metrics.getChildDrawCount(), mMaxChildDraws);
+    }
+
+    /**
+     * Log {@code metrics} if they exceed this budget.
+     */
+    void check(PanelMetrics metrics) {
+        if (isMet(metrics)) return;
+
+        Log.w(SlidingUpLayout.TAG, "Layout budget exceeded: " + metrics + ", " + this);
+    }
+
+    private static boolean within(int count, int max) {
+        return max == UNLIMITED || count <= max;
+    }
+
+    @Override
+    public String toString() {
+        return "LayoutBudget{measures=" + mMaxMeasures + ", layouts=" + mMaxLayouts
+                + ", childMeasures=" + mMaxChildMeasures + ", childDraws=" + mMaxChildDraws + "}";
+    }
+}
@@ -0,0 +1,161 @@
+package com.readboy.slidinguppanel.views;
+
+/**
+ * Panel math of {@link SlidingUpLayout}: the bounds of the dragger, the distribution
+ * of extra space among weighted children and the gravity offsets of a layout pass.
+ *
+ * <p>Works on primitive values only and does not depend on the Android framework, so
+ * it can be tested and measured on a plain JVM. An instance keeps the bounds of one
+ * panel and the state of one weight distribution, and never allocates.</p>
+ */
+public final class PanelGeometry {
+
+    /**
+     * Gravity values understood by {@link #getMajorAxisStart(int, int, int, int)} and
+     * {@link #getMinorAxisStart(int, int, int, int, int, int, int)}, same as the
+     * constants of {@code android.view.Gravity}.
+     */
+    public static final int GRAVITY_LEFT = 0x03;
+    public static final int GRAVITY_RIGHT = 0x05;
+    public static final int GRAVITY_CENTER_HORIZONTAL = 0x01;
+    public static final int GRAVITY_TOP = 0x30;
+    public static final int GRAVITY_BOTTOM = 0x50;
+    public static final int GRAVITY_CENTER_VERTICAL = 0x10;
+
+    public static final int HORIZONTAL_GRAVITY_MASK = 0x07;
+    public static final int VERTICAL_GRAVITY_MASK = 0x70;
+
+    private int mSlideBottom;
+    private int mMinHeight;
+    private int mMaxHeight = -1;
+    private int mDraggerHeight;
+
+    private int mRemainingDelta;
+    private float mRemainingWeight;
+
+    /**
+     * @param slideBottom bottom of the slide view
+     * @param minHeight smallest height of the slide view
+     * @param maxHeight largest height of the slide view, or -1 for no limit
+     * @param draggerHeight height of the dragger above the slide view
+     */
+    public void setBounds(int slideBottom, int minHeight, int maxHeight, int draggerHeight) {
+        mSlideBottom = slideBottom;
+        mMinHeight = minHeight;
+        mMaxHeight = maxHeight;
+        mDraggerHeight = draggerHeight;
+    }
+
+    /**
+     * @return the top of the dragger when the slide view has its largest height
+     */
+    public int getMinTop() {
+        int top = 0;
+        if (mMaxHeight != -1) top = mSlideBottom - mMaxHeight - mDraggerHeight;
+        return top < 0 ? 0 : top;
+    }
+
+    /**
+     * @return the top of the dragger when the slide view has its smallest height
+     */
+    public int getMaxTop() {
+        return mSlideBottom - mMinHeight - mDraggerHeight;
+    }
+
+    /**
+     * @param top a top of the dragger
+     * @return {@code top} limited to the range the panel can move in
+     */
+    public int clampTop(int top) {
+        final int maxTop = getMaxTop();
+        if (top > maxTop) top = maxTop;
+
+        final int minTop = getMinTop();
+        if (top < minTop) top = minTop;
+
+        return top;
+    }
+
+    /**
+     * @return the height of the slide view when the dragger is at {@code top}
+     */
+    public int getHeightForTop(int top) {
+        return mSlideBottom - top - mDraggerHeight;
+    }
+
+    /**
+     * @return the top of the dragger when the slide view is {@code height} pixels high
+     */
+    public int getTopForHeight(int height) {
+        return mSlideBottom - height - mDraggerHeight;
+    }
+
+    /**
+     * Start handing out {@code delta} pixels among children whose weights add up
+     * to {@code weightSum}, see {@link #nextWeightShare(float)}.
+     */
+    public void startWeightDistribution(int delta, float weightSum) {
+        mRemainingDelta = delta;
+        mRemainingWeight = weightSum;
+    }
+
+    /**
+     * @param weight weight of the next child, greater than 0
+     * @return the share of the remaining pixels for that child
+     */
+    public int nextWeightShare(float weight) {
+        final int share = (int) (weight * mRemainingDelta / mRemainingWeight);
+        mRemainingWeight -= weight;
+        mRemainingDelta -= share;
+        return share;
+    }
+
+    /**
+     * @param majorGravity vertical gravity of the layout
+     * @param paddingTop top padding of the layout
+     * @param height height of the layout
+     * @param totalLength height of the children, padding included
+     * @return the top of the first child
+     */
+    public static int getMajorAxisStart(int majorGravity, int paddingTop, int height, int totalLength) {
+        switch (majorGravity) {
+            case GRAVITY_BOTTOM:
+                // totalLength contains the padding already
+                return paddingTop + height - totalLength;
+
+            case GRAVITY_CENTER_VERTICAL:
+                // totalLength contains the padding already
+                return paddingTop + (height - totalLength) / 2;
+
+            case GRAVITY_TOP:
+            default:
+                return paddingTop;
+        }
+    }
+
+    /**
+     * @param horizontalGravity absolute horizontal gravity of the child
+     * @param paddingLeft left padding of the layout
+     * @param childSpace width available for the child
+     * @param childRight where the right end of the child should go
+     * @param childWidth measured width of the child
+     * @param leftMargin left margin of the child
+     * @param rightMargin right margin of the child
+     * @return the left of the child
+     */
+    public static int getMinorAxisStart(int horizontalGravity, int paddingLeft, int childSpace,
+                                        int childRight, int childWidth,
+                                        int leftMargin, int rightMargin) {
+        switch (horizontalGravity) {
+            case GRAVITY_CENTER_HORIZONTAL:
+                return paddingLeft + ((childSpace - childWidth) / 2) + leftMargin - rightMargin;
+
+            case GRAVITY_RIGHT:
+                return childRight - childWidth - rightMargin;
+
+            case GRAVITY_LEFT:
+            default:
+                return paddingLeft + leftMargin;
+        }
+    }
+}
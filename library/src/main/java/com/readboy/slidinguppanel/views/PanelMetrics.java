@@ -0,0 +1,153 @@
+package com.readboy.slidinguppanel.views;
+
+/**
+ * Cost of one gesture on a {@link SlidingUpLayout}, from ACTION_DOWN on the dragger
+ * until the panel has settled. Nested scrolls and programmatic moves are measured the same way.
+ *
+ * <p>The same instance is reused for every gesture, copy the values you need in
+ * {@link SlidingUpLayout.OnGestureMetricsListener#onGestureMetrics(PanelMetrics)}.</p>
+ */
+public class PanelMetrics {
+
+    int measureCount;
+    int layoutCount;
+    long measureTimeNanos;
+    long layoutTimeNanos;
+
+    int childMeasureCount;
+    int childLayoutCount;
+    int childDrawCount;
+
+    int frameCount;
+    int framesOverBudget;
+    long frameBudgetNanos;
+
+    long settleTimeNanos;
+
+    /**
+     * Work of the frame being built, see {@link #onFrameDrawn(long)}.
+     */
+    private long mFrameWorkNanos;
+
+    void reset(long frameBudgetNanos) {
+        measureCount = 0;
+        layoutCount = 0;
+        measureTimeNanos = 0;
+        layoutTimeNanos = 0;
+        childMeasureCount = 0;
+        childLayoutCount = 0;
+        childDrawCount = 0;
+        frameCount = 0;
+        framesOverBudget = 0;
+        settleTimeNanos = 0;
+        mFrameWorkNanos = 0;
+        this.frameBudgetNanos = frameBudgetNanos;
+    }
+
+    void onMeasured(long durationNanos) {
+        measureCount++;
+        measureTimeNanos += durationNanos;
+        mFrameWorkNanos += durationNanos;
+    }
+
+    void onLaidOut(long durationNanos) {
+        layoutCount++;
+        layoutTimeNanos += durationNanos;
+        mFrameWorkNanos += durationNanos;
+    }
+
+    void onFrameDrawn(long drawTimeNanos) {
+        frameCount++;
+        if (mFrameWorkNanos + drawTimeNanos > frameBudgetNanos) framesOverBudget++;
+        mFrameWorkNanos = 0;
+    }
+
+    /**
+     * @return number of measure passes of the layout during the gesture
+     */
+    public int getMeasureCount() {
+        return measureCount;
+    }
+
+    /**
+     * @return number of layout passes of the layout during the gesture
+     */
+    public int getLayoutCount() {
+        return layoutCount;
+    }
+
+    /**
+     * @return number of times a direct child was measured, including the measures
+     * {@link android.view.View#measure(int, int)} answered without calling onMeasure
+     */
+    public int getChildMeasureCount() {
+        return childMeasureCount;
+    }
+
+    /**
+     * @return number of times a direct child was laid out
+     */
+    public int getChildLayoutCount() {
+        return childLayoutCount;
+    }
+
+    /**
+     * @return number of times a direct child was drawn
+     */
+    public int getChildDrawCount() {
+        return childDrawCount;
+    }
+
+    /**
+     * @return time spent in {@link SlidingUpLayout#measureVertical(int, int)}
+     */
+    public long getMeasureTimeNanos() {
+        return measureTimeNanos;
+    }
+
+    /**
+     * @return time spent in {@link SlidingUpLayout#layoutVertical(int, int, int, int)}
+     */
+    public long getLayoutTimeNanos() {
+        return layoutTimeNanos;
+    }
+
+    /**
+     * @return number of frames the layout has drawn during the gesture
+     */
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * @return number of frames in which measuring, laying out and drawing the layout
+     * took longer than {@link #getFrameBudgetNanos()}
+     */
+    public int getFramesOverBudget() {
+        return framesOverBudget;
+    }
+
+    /**
+     * @return duration of one frame of the display the layout is attached to
+     */
+    public long getFrameBudgetNanos() {
+        return frameBudgetNanos;
+    }
+
+    /**
+     * @return time from the release of the dragger until the panel settled
+     */
+    public long getSettleTimeNanos() {
+        return settleTimeNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "PanelMetrics{measures=" + measureCount + ", layouts=" + layoutCount
+                + ", childMeasures=" + childMeasureCount + ", childLayouts=" + childLayoutCount
+                + ", childDraws=" + childDrawCount
+                + ", measureTimeNanos=" + measureTimeNanos + ", layoutTimeNanos=" + layoutTimeNanos
+                + ", frames=" + frameCount + ", framesOverBudget=" + framesOverBudget
+                + ", settleTimeNanos=" + settleTimeNanos + "}";
+    }
+}
@@ -0,0 +1,256 @@
+package com.readboy.slidinguppanel.views;
+
+import android.content.Context;
+import android.hardware.SensorManager;
+import android.view.ViewConfiguration;
+import android.view.animation.Interpolator;
+import android.widget.OverScroller;
+
+/**
+ * Vertical {@link OverScroller} of {@link SlidingUpLayout} that can also be stepped on a virtual clock.
+ *
+ * <p>An {@link OverScroller} reads the animation clock in {@link OverScroller#computeScrollOffset()},
+ * and there is no public way to give it another one. On the virtual clock, the scrolls started by
+ * {@link #startScroll(int, int, int)} and {@link #fling(int, int, int, int)} are stepped to the
+ * time of {@link #setVirtualTime(long)} instead, along the same curves as the scroller: the
+ * viscous fluid interpolator the scroller is built with, and the deceleration spline of the
+ * platform fling, which stops at the bounds without overscrolling.</p>
+ */
+final class PanelScroller {
+
+    private static final float DECELERATION_RATE = (float) (Math.log(0.78) / Math.log(0.9));
+    private static final float INFLEXION = 0.35f;
+    private static final float START_TENSION = 0.5f;
+    private static final float END_TENSION = 1.0f;
+    private static final float P1 = START_TENSION * INFLEXION;
+    private static final float P2 = 1.0f - END_TENSION * (1.0f - INFLEXION);
+
+    private static final int NB_SAMPLES = 100;
+    private static final float[] SPLINE_POSITION = new float[NB_SAMPLES + 1];
+    private static final float[] SPLINE_TIME = new float[NB_SAMPLES + 1];
+
+    static {
+        float xMin = 0.0f;
+        float yMin = 0.0f;
+        for (int i = 0; i < NB_SAMPLES; i++) {
+            final float alpha = (float) i / NB_SAMPLES;
+
+            float xMax = 1.0f;
+            float x, tx, coef;
+            while (true) {
+                x = xMin + (xMax - xMin) / 2.0f;
+                coef = 3.0f * x * (1.0f - x);
+                tx = coef * ((1.0f - x) * P1 + x * P2) + x * x * x;
+                if (Math.abs(tx - alpha) < 1E-5) break;
+                if (tx > alpha) xMax = x;
+                else xMin = x;
+            }
+            SPLINE_POSITION[i] = coef * ((1.0f - x) * START_TENSION + x) + x * x * x;
+
+            float yMax = 1.0f;
+            float y, dy;
+            while (true) {
+                y = yMin + (yMax - yMin) / 2.0f;
+                coef = 3.0f * y * (1.0f - y);
+                dy = coef * ((1.0f - y) * START_TENSION + y) + y * y * y;
+                if (Math.abs(dy - alpha) < 1E-5) break;
+                if (dy > alpha) yMax = y;
+                else yMin = y;
+            }
+            SPLINE_TIME[i] = coef * ((1.0f - y) * P1 + y * P2) + y * y * y;
+        }
+        SPLINE_POSITION[NB_SAMPLES] = SPLINE_TIME[NB_SAMPLES] = 1.0f;
+    }
+
+    /**
+     * The interpolator an {@link OverScroller} uses by default, given to it explicitly so that
+     * both clocks scroll along the same curve.
+     */
+    private static final class ViscousFluidInterpolator implements Interpolator {
+        private static final float VISCOUS_FLUID_SCALE = 8.0f;
+        private static final float VISCOUS_FLUID_NORMALIZE = 1.0f / viscousFluid(1.0f);
+        private static final float VISCOUS_FLUID_OFFSET = 1.0f - VISCOUS_FLUID_NORMALIZE * viscousFluid(1.0f);
+
+        private static float viscousFluid(float x) {
+            x *= VISCOUS_FLUID_SCALE;
+            if (x < 1.0f) {
+                x -= (1.0f - (float) Math.exp(-x));
+            } else {
+                final float start = 0.36787944117f; // 1/e == exp(-1)
+                x = 1.0f - (float) Math.exp(1.0f - x);
+                x = start + x * (1.0f - start);
+            }
+            return x;
+        }
+
+        @Override
+        public float getInterpolation(float input) {
+            final float interpolated = VISCOUS_FLUID_NORMALIZE * viscousFluid(input);
+            return interpolated > 0 ? interpolated + VISCOUS_FLUID_OFFSET : interpolated;
+        }
+    }
+
+    private final OverScroller mScroller;
+    private final Interpolator mInterpolator;
+    private final float mPhysicalCoeff;
+
+    private boolean mVirtual;
+    private long mVirtualTime;
+
+    private boolean mFinished = true;
+    private boolean mFling;
+    private int mStart;
+    private int mCurr;
+    private int mFinal;
+    private int mSplineDistance;
+    private int mSplineDuration;
+    private int mDuration;
+
+    /**
+     * Time the scroll started at on the virtual clock, -1 until its first step.
+     */
+    private long mStartTime;
+
+    PanelScroller(Context context) {
+        mInterpolator = new ViscousFluidInterpolator();
+        mScroller = new OverScroller(context, mInterpolator);
+        final float ppi = context.getResources().getDisplayMetrics().density * 160.0f;
+        mPhysicalCoeff = SensorManager.GRAVITY_EARTH * 39.37f * ppi * 0.84f;
+    }
+
+    /**
+     * Step the scrolls with {@link #setVirtualTime(long)} instead of the animation clock, a running
+     * scroll can not move over to the other clock and finishes right away.
+     */
+    void setVirtualClock(boolean virtual) {
+        if (mVirtual == virtual) return;
+
+        abortAnimation();
+        mVirtual = virtual;
+    }
+
+    /**
+     * Set the time {@link #computeScrollOffset()} steps to on the virtual clock, a scroll
+     * starts at the time of its first step.
+     */
+    void setVirtualTime(long timeMillis) {
+        mVirtualTime = timeMillis;
+    }
+
+    /**
+     * @see OverScroller#startScroll(int, int, int, int, int)
+     */
+    void startScroll(int startY, int dy, int duration) {
+        if (!mVirtual) {
+            mScroller.startScroll(0, startY, 0, dy, duration);
+            return;
+        }
+
+        start(startY, startY + dy, duration);
+        mFling = false;
+    }
+
+    /**
+     * @see OverScroller#fling(int, int, int, int, int, int, int, int)
+     */
+    void fling(int startY, int velocityY, int minY, int maxY) {
+        if (!mVirtual) {
+            mScroller.fling(0, startY, 0, velocityY, 0, 0, minY, maxY);
+            return;
+        }
+
+        double distance = 0;
+        int duration = 0;
+        if (velocityY != 0) {
+            final double deceleration = Math.log(INFLEXION * Math.abs(velocityY)
+                    / (ViewConfiguration.getScrollFriction() * mPhysicalCoeff));
+            distance = ViewConfiguration.getScrollFriction() * mPhysicalCoeff
+                    * Math.exp(DECELERATION_RATE / (DECELERATION_RATE - 1.0) * deceleration);
+            duration = (int) (1000.0 * Math.exp(deceleration / (DECELERATION_RATE - 1.0)));
+        }
+        mSplineDistance = (int) (distance * Math.signum(velocityY));
+        mSplineDuration = duration;
+        start(startY, startY + mSplineDistance, duration);
+        mFling = true;
+
+        // The fling ends when the spline reaches a bound.
+        if (mFinal < minY) clampFling(minY);
+        if (mFinal > maxY) clampFling(maxY);
+    }
+
+    private void start(int start, int end, int duration) {
+        mStart = mCurr = start;
+        mFinal = end;
+        mDuration = duration;
+        mStartTime = -1;
+        mFinished = false;
+    }
+
+    private void clampFling(int bound) {
+        final float x = Math.abs((float) (bound - mStart) / (mFinal - mStart));
+        final int index = (int) (NB_SAMPLES * x);
+        if (index < NB_SAMPLES) {
+            final float xInf = (float) index / NB_SAMPLES;
+            final float xSup = (float) (index + 1) / NB_SAMPLES;
+            final float tInf = SPLINE_TIME[index];
+            final float tSup = SPLINE_TIME[index + 1];
+            mDuration *= tInf + (x - xInf) / (xSup - xInf) * (tSup - tInf);
+        }
+        mFinal = bound;
+    }
+
+    /**
+     * @return whether the scroll is still running, it has then moved to {@link #getCurrY()}
+     */
+    boolean computeScrollOffset() {
+        if (!mVirtual) return mScroller.computeScrollOffset();
+        if (mFinished) return false;
+
+        if (mStartTime < 0) mStartTime = mVirtualTime;
+        final long elapsed = mVirtualTime - mStartTime;
+        if (elapsed >= mDuration) {
+            abortAnimation();
+            return true;
+        }
+
+        if (mFling) {
+            final float t = (float) elapsed / mSplineDuration;
+            final int index = (int) (NB_SAMPLES * t);
+            float distanceCoef = 1.0f;
+            if (index < NB_SAMPLES) {
+                final float tInf = (float) index / NB_SAMPLES;
+                final float tSup = (float) (index + 1) / NB_SAMPLES;
+                final float dInf = SPLINE_POSITION[index];
+                final float dSup = SPLINE_POSITION[index + 1];
+                distanceCoef = dInf + (t - tInf) * (dSup - dInf) / (tSup - tInf);
+            }
+            mCurr = mStart + Math.round(distanceCoef * mSplineDistance);
+        } else {
+            final float q = mInterpolator.getInterpolation((float) elapsed / mDuration);
+            mCurr = mStart + Math.round(q * (mFinal - mStart));
+        }
+        return true;
+    }
+
+    int getCurrY() {
+        return mVirtual ? mCurr : mScroller.getCurrY();
+    }
+
+    int getFinalY() {
+        return mVirtual ? mFinal : mScroller.getFinalY();
+    }
+
+    boolean isFinished() {
+        return mVirtual ? mFinished : mScroller.isFinished();
+    }
+
+    void abortAnimation() {
+        if (!mVirtual) {
+            mScroller.abortAnimation();
+            return;
+        }
+
+        mCurr = mFinal;
+        mFinished = true;
+    }
+}
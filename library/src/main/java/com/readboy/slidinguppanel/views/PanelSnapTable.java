@@ -0,0 +1,256 @@
+package com.readboy.slidinguppanel.views;
+
+import java.util.Arrays;
+
+/**
+ * Snap states of {@link SlidingUpLayout} and the tops of the dragger they resolve to.
+ *
+ * <p>The states are the collapsed and the expanded panel when snapping to the bounds, an
+ * optional anchor and a list of slide view heights. {@link #resolve(int, int, int, int)} turns them into a sorted
+ * table of tops, and only rebuilds it when the bounds of the panel or the states changed.
+ * A release then picks its target from the table with a binary search.</p>
+ */
+public final class PanelSnapTable {
+
+    /**
+     * States passed to {@link #getTopForState(int)} and returned by {@link #getStateForTop(int)},
+     * besides the indices of the heights set by {@link #setSnapHeights(int[])}.
+     */
+    public static final int COLLAPSED = -1;
+    public static final int EXPANDED = -2;
+    public static final int ANCHOR = -3;
+    public static final int NONE = -4;
+
+    private static final int[] EMPTY = new int[0];
+
+    private boolean mSnapToBounds;
+    private float mAnchorFraction = -1;
+    private int mAnchorHeight = -1;
+    private int[] mSnapHeights = EMPTY;
+
+    /**
+     * Whether the states changed since the table was last resolved.
+     */
+    private boolean mDirty = true;
+    private int mSlideBottom;
+    private int mMinHeight;
+    private int mMaxHeight;
+    private int mDraggerHeight;
+
+    private final PanelGeometry mGeometry = new PanelGeometry();
+
+    /**
+     * Top of every state before sorting, the anchor top is -1 without an anchor.
+     */
+    private int mCollapsedTop;
+    private int mExpandedTop;
+    private int mAnchorTop = -1;
+    private int[] mHeightTops = EMPTY;
+
+    /**
+     * Distinct tops of the states in ascending order.
+     */
+    private int[] mTops = EMPTY;
+    private int mCount;
+
+    public void setSnapToBounds(boolean snap) {
+        if (mSnapToBounds != snap) {
+            mSnapToBounds = snap;
+            mDirty = true;
+        }
+    }
+
+    public boolean isSnapToBounds() {
+        return mSnapToBounds;
+    }
+
+    /**
+     * @param fraction position of the anchor between the collapsed (0) and the expanded (1)
+     *                 panel, or -1 to remove it. Replaces an anchor height.
+     */
+    public void setAnchorFraction(float fraction) {
+        mAnchorFraction = fraction < 0 ? -1 : Math.min(fraction, 1f);
+        mAnchorHeight = -1;
+        mDirty = true;
+    }
+
+    public float getAnchorFraction() {
+        return mAnchorFraction;
+    }
+
+    /**
+     * @param height height of the slide view at the anchor, or -1 to remove it.
+     *               Replaces an anchor fraction.
+     */
+    public void setAnchorHeight(int height) {
+        mAnchorHeight = height < 0 ? -1 : height;
+        mAnchorFraction = -1;
+        mDirty = true;
+    }
+
+    public int getAnchorHeight() {
+        return mAnchorHeight;
+    }
+
+    /**
+     * @param heights heights of the slide view to snap at, copied
+     */
+    public void setSnapHeights(int[] heights) {
+        mSnapHeights = heights == null || heights.length == 0 ? EMPTY : Arrays.copyOf(heights, heights.length);
+        mDirty = true;
+    }
+
+    /**
+     * @return whether any snap state is set
+     */
+    public boolean isEnabled() {
+        return mSnapToBounds || mAnchorFraction >= 0 || mAnchorHeight >= 0 || mSnapHeights.length > 0;
+    }
+
+    /**
+     * Resolve the states against the bounds of the panel, see {@link PanelGeometry#setBounds(int, int, int, int)}.
+     *
+     * @return whether the table was rebuilt, it is kept when neither the bounds nor the states changed
+     */
+    public boolean resolve(int slideBottom, int minHeight, int maxHeight, int draggerHeight) {
+        if (!mDirty && slideBottom == mSlideBottom && minHeight == mMinHeight
+                && maxHeight == mMaxHeight && draggerHeight == mDraggerHeight) {
+            return false;
+        }
+
+        mDirty = false;
+        mSlideBottom = slideBottom;
+        mMinHeight = minHeight;
+        mMaxHeight = maxHeight;
+        mDraggerHeight = draggerHeight;
+
+        mCount = 0;
+        mAnchorTop = -1;
+        if (!isEnabled()) return true;
+
+        final int capacity = 3 + mSnapHeights.length;
+        if (mTops.length < capacity) mTops = new int[capacity];
+        if (mHeightTops.length < mSnapHeights.length) mHeightTops = new int[mSnapHeights.length];
+
+        mGeometry.setBounds(slideBottom, minHeight, maxHeight, draggerHeight);
+        mExpandedTop = mGeometry.getMinTop();
+        mCollapsedTop = mGeometry.getMaxTop();
+
+        if (mSnapToBounds) addBounds();
+        if (mAnchorFraction >= 0) {
+            mAnchorTop = mCollapsedTop + Math.round((mExpandedTop - mCollapsedTop) * mAnchorFraction);
+        } else if (mAnchorHeight >= 0) {
+            mAnchorTop = mGeometry.clampTop(mGeometry.getTopForHeight(mAnchorHeight));
+        }
+        if (mAnchorTop >= 0) mTops[mCount++] = mAnchorTop;
+        for (int i = 0; i < mSnapHeights.length; i++) {
+            mHeightTops[i] = mGeometry.clampTop(mGeometry.getTopForHeight(mSnapHeights[i]));
+            mTops[mCount++] = mHeightTops[i];
+        }
+        // A release needs a state to settle at.
+        if (mCount == 0) addBounds();
+
+        Arrays.sort(mTops, 0, mCount);
+
+        // Drop duplicates
+        int count = 1;
+        for (int i = 1; i < mCount; i++) {
+            if (mTops[i] != mTops[count - 1]) mTops[count++] = mTops[i];
+        }
+        mCount = count;
+        return true;
+    }
+
+    private void addBounds() {
+        mTops[mCount++] = mCollapsedTop;
+        mTops[mCount++] = mExpandedTop;
+    }
+
+    /**
+     * Empty the table until the next {@link #resolve(int, int, int, int)}, for a panel that can not move.
+     */
+    public void clear() {
+        mCount = 0;
+        mDirty = true;
+    }
+
+    /**
+     * @return number of distinct tops in the table, 0 when snapping is off
+     */
+    public int getCount() {
+        return mCount;
+    }
+
+    /**
+     * @return the top at {@code index}, the tops are in ascending order
+     */
+    public int getTop(int index) {
+        return mTops[index];
+    }
+
+    /**
+     * Binary search the table for the state to settle at, it must not be empty.
+     *
+     * @param top current top of the dragger
+     * @param velocityY release velocity, the next state in its direction is picked
+     *                  if it is not 0, the nearest one otherwise
+     * @return top of the dragger in the picked state
+     */
+    public int findSnapTop(int top, int velocityY) {
+        final int index = Arrays.binarySearch(mTops, 0, mCount, top);
+
+        // Nearest states above (smaller top, more expanded) and below the current top
+        int above;
+        int below;
+        if (index >= 0) {
+            if (velocityY == 0) return top;
+            above = index - 1;
+            below = index + 1;
+        } else {
+            below = -index - 1;
+            above = below - 1;
+        }
+
+        if (velocityY < 0) return above >= 0 ? mTops[above] : mTops[0];
+        if (velocityY > 0) return below < mCount ? mTops[below] : mTops[mCount - 1];
+
+        if (above < 0) return mTops[below];
+        if (below >= mCount) return mTops[above];
+        return top - mTops[above] <= mTops[below] - top ? mTops[above] : mTops[below];
+    }
+
+    /**
+     * Which state the panel rests in does not depend on the order of the table, so it can
+     * be kept across bounds that merge or reorder the tops, see {@link #getTopForState(int)}.
+     *
+     * @return the state resolved to {@code top}, the bounds first, or {@link #NONE}
+     */
+    public int getStateForTop(int top) {
+        if (mCount == 0) return NONE;
+        if (top == mCollapsedTop) return COLLAPSED;
+        if (top == mExpandedTop) return EXPANDED;
+        if (top == mAnchorTop) return ANCHOR;
+        for (int i = 0; i < mSnapHeights.length; i++) {
+            if (mHeightTops[i] == top) return i;
+        }
+        return NONE;
+    }
+
+    /**
+     * @param state {@link #COLLAPSED}, {@link #EXPANDED}, {@link #ANCHOR} or an index of the snap heights
+     * @return the top the state resolved to, or -1 if it is not in the table
+     */
+    public int getTopForState(int state) {
+        if (mCount == 0) return -1;
+        switch (state) {
+            case COLLAPSED:
+                return mCollapsedTop;
+            case EXPANDED:
+                return mExpandedTop;
+            case ANCHOR:
+                return mAnchorTop;
+            default:
+                return state >= 0 && state < mSnapHeights.length ? mHeightTops[state] : -1;
+        }
+    }
+}
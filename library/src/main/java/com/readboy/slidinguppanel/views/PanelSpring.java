@@ -0,0 +1,122 @@
+package com.readboy.slidinguppanel.views;
+
+/**
+ * Damped spring moving the panel of {@link SlidingUpLayout} toward a target position.
+ *
+ * <p>Stepped once per frame with the time elapsed since the previous frame, so it
+ * follows the actual frame rate and can be stopped and restarted at any point
+ * without losing its velocity.</p>
+ */
+public final class PanelSpring {
+
+    public static final float DEFAULT_STIFFNESS = 400f;
+    public static final float DEFAULT_DAMPING_RATIO = 0.75f;
+    public static final float DEFAULT_REST_THRESHOLD = 0.5f;
+
+    /**
+     * Longest step of the integration, longer frames are split so that stiff
+     * springs stay stable.
+     */
+    private static final long MAX_STEP_NANOS = 4000000L;
+
+    private float mStiffness = DEFAULT_STIFFNESS;
+    private float mDampingRatio = DEFAULT_DAMPING_RATIO;
+    private float mRestThreshold = DEFAULT_REST_THRESHOLD;
+
+    private float mPosition;
+    private float mVelocity;
+    private float mTarget;
+
+    /**
+     * @param stiffness stiffness of the spring for a mass of 1, greater than 0
+     */
+    public void setStiffness(float stiffness) {
+        if (stiffness <= 0) throw new IllegalArgumentException("Spring stiffness must be positive: " + stiffness);
+        mStiffness = stiffness;
+    }
+
+    public float getStiffness() {
+        return mStiffness;
+    }
+
+    /**
+     * @param dampingRatio 1 for a critically damped spring, less than 1 to overshoot the target
+     */
+    public void setDampingRatio(float dampingRatio) {
+        if (dampingRatio < 0) throw new IllegalArgumentException("Damping ratio must not be negative: " + dampingRatio);
+        mDampingRatio = dampingRatio;
+    }
+
+    public float getDampingRatio() {
+        return mDampingRatio;
+    }
+
+    /**
+     * @param pixels distance from the target under which the spring may come to rest
+     */
+    public void setRestThreshold(float pixels) {
+        mRestThreshold = pixels;
+    }
+
+    /**
+     * Start moving from {@code position} at {@code velocity} toward {@code target}.
+     *
+     * @param velocity in pixels per second
+     */
+    public void start(float position, float velocity, float target) {
+        mPosition = position;
+        mVelocity = velocity;
+        mTarget = target;
+    }
+
+    /**
+     * Advance the spring by {@code elapsedNanos}.
+     *
+     * @return whether the spring has come to rest, it is then exactly at its target
+     */
+    public boolean step(long elapsedNanos) {
+        final float damping = 2 * mDampingRatio * (float) Math.sqrt(mStiffness);
+
+        while (elapsedNanos > 0) {
+            final long stepNanos = elapsedNanos > MAX_STEP_NANOS ? MAX_STEP_NANOS : elapsedNanos;
+            elapsedNanos -= stepNanos;
+
+            // Semi-implicit Euler, stable for the step sizes above.
+            final float dt = stepNanos / 1000000000f;
+            final float acceleration = -mStiffness * (mPosition - mTarget) - damping * mVelocity;
+            mVelocity += acceleration * dt;
+            mPosition += mVelocity * dt;
+        }
+
+        if (isAtRest()) {
+            mPosition = mTarget;
+            mVelocity = 0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return whether the spring is within the rest threshold of its target and
+     * too slow to leave it within the next 16 milliseconds
+     */
+    public boolean isAtRest() {
+        return Math.abs(mPosition - mTarget) < mRestThreshold
+                && Math.abs(mVelocity) * 0.016f < mRestThreshold;
+    }
+
+    public float getPosition() {
+        return mPosition;
+    }
+
+    /**
+     * @return the velocity in pixels per second
+     */
+    public float getVelocity() {
+        return mVelocity;
+    }
+
+    public float getTarget() {
+        return mTarget;
+    }
+}
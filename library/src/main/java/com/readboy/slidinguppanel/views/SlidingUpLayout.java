@@ -0,0 +1,3379 @@
+package com.readboy.slidinguppanel.views;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.os.Process;
+import android.os.Trace;
+import android.util.AttributeSet;
+import android.util.Log;
+import android.util.TypedValue;
+import android.view.Choreographer;
+import android.view.Gravity;
+import android.view.LayoutInflater;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.view.Display;
+import android.view.ViewConfiguration;
+import android.view.ViewParent;
+import android.view.ViewDebug;
+import android.view.ViewGroup;
+import android.view.accessibility.AccessibilityEvent;
+import android.view.accessibility.AccessibilityNodeInfo;
+import android.view.animation.LinearInterpolator;
+import android.view.animation.OvershootInterpolator;
+import android.widget.Button;
+
+import java.util.Arrays;
+
+
+/**
+ * Created by kwd on 2014/11/17.
+ */
+public class SlidingUpLayout extends ViewGroup implements View.OnTouchListener {
+
+    public static final String TAG = SlidingUpLayout.class.getSimpleName();
+
+    /**
+     * Every move event updates the height of the slide view and requests a new layout pass.
+     */
+    public static final int DRAG_MODE_LAYOUT = 0;
+
+    /**
+     * Move events only offset the dragger and the edges of the children, the new
+     * height of the slide view is committed with a single layout pass when the gesture ends.
+     */
+    public static final int DRAG_MODE_OFFSET = 1;
+
+    /**
+     * States reported to {@link PanelSlideListener#onStateChanged(int)}: the panel rests,
+     * follows a gesture or settles after one.
+     */
+    public static final int STATE_IDLE = 0;
+    public static final int STATE_DRAGGING = 1;
+    public static final int STATE_SETTLING = 2;
+
+    protected static final int DEFAULT_DRAGGER_RESOURCE = R.drawable.selector_btn_dragger;
+    protected static final int DEFAULT_ANIMATOR_DURATION = 250;
+    protected static final float DEFAULT_DIFFERENCE = 50.0f;
+
+    protected static final long DEFAULT_FRAME_INTERVAL_NANOS = 1000000000L / 60;
+
+    private static final PanelSlideListener[] EMPTY_SLIDE_LISTENERS = new PanelSlideListener[0];
+
+    /**
+     * Worker shared by all instances to inflate content off the main thread, see {@link #inflateAsync(int, int)}.
+     */
+    private static HandlerThread sInflateThread;
+    private static Handler sInflateHandler;
+    private static Handler sMainHandler;
+
+    private static final String TRACE_SLIDE_SECTION = "SlidingUpLayout#slideUp";
+    private static final String TRACE_MEASURE_SECTION = "SlidingUpLayout#measure";
+    private static final String TRACE_LAYOUT_SECTION = "SlidingUpLayout#layout";
+
+    protected View mUpperView;
+    protected View mSlideView;
+
+    /**
+     * The dragger, {@code null} if it is drawn by the layout itself, see {@link #mDrawDragger}.
+     */
+    Button mDraggerBtn;
+    Drawable mDraggerDrawable;
+    int mDraggerResource;
+    int mDraggerWidth;
+    int mDraggerHeight;
+
+    int mMaxHeight;
+    int mMinHeight;
+
+    /**
+     * State restored by {@link #reset()}: the bounds read from the attributes and the
+     * height the slide view had when it was added.
+     */
+    private int mDefaultMaxHeight;
+    private int mDefaultMinHeight;
+    private int mDefaultSlideHeight;
+
+    /**
+     * State waiting for the next measure pass, see {@link #applyRestoredState(int)}.
+     */
+    private SavedState mRestoredState;
+
+    private int mTotalLength;
+
+    private final PanelGeometry mGeometry = new PanelGeometry();
+
+    private int mGravity = Gravity.START | Gravity.TOP;
+
+    private int mDragMode = DRAG_MODE_LAYOUT;
+
+    /**
+     * Whether the dragger drawable is drawn and hit-tested by the layout instead of a child button.
+     */
+    private boolean mDrawDragger;
+    private final Rect mDraggerRect = new Rect();
+    private float mDraggerTranslationY;
+    private boolean mDraggerTouched;
+
+    /**
+     * Whether the slide view is known to be opaque, see {@link #drawChild(Canvas, View, long)}.
+     */
+    private boolean mPanelOpaque;
+
+    /**
+     * Whether the upper view keeps the full height and the panel is drawn over it,
+     * see {@link #measureOverlay(int, int)}.
+     */
+    private boolean mOverlay;
+    private float mParallaxFactor;
+
+    /**
+     * Whether the slide view keeps its largest height and is only moved and clipped by
+     * the panel, see {@link #measureRevealedSlideView(View, int, int)}. With
+     * {@link #mCommitRevealHeight} it is given its visible height again once the panel settles.
+     */
+    private boolean mReveal;
+    private boolean mCommitRevealHeight;
+    private boolean mRevealExpanded;
+    private int mRevealBottom;
+
+    /**
+     * Panels stacked between the upper view and the slide view, from the top down. Each has
+     * a dragger drawn above it and its own bounds, the state is kept in parallel arrays.
+     * {@link #mActivePanel} is the stacked panel the current motion moves, -1 for the slide view.
+     */
+    private View[] mStackedPanels = new View[0];
+    private Drawable[] mStackDraggerDrawables = new Drawable[0];
+    private int[] mStackDraggerTops = new int[0];
+    private int[] mStackMinHeights = new int[0];
+    private int[] mStackMaxHeights = new int[0];
+    private int mStackCount;
+    private int mStackDraggerLeft;
+    private int mActivePanel = -1;
+    private int mTouchedPanel = -1;
+    private boolean mStackMotion;
+
+    private boolean isBeingDragged = false;
+    protected float lastY;
+    private int originalTop;
+
+    private VelocityTracker mVelocityTracker;
+    private PanelScroller mScroller;
+    private int mMinimumVelocity;
+    private int mMaximumVelocity;
+    private int mTouchSlop;
+
+    /**
+     * Touch down position of a gesture on the slide view, which is taken over by
+     * {@link #onInterceptTouchEvent(MotionEvent)} once it passes the touch slop.
+     */
+    private float mInitialMotionX;
+    private float mInitialMotionY;
+    private boolean mContentDragged;
+
+    /**
+     * Whether the panel follows a nested scroll of the slide view, it then moves through
+     * {@link #offsetPanel(int)} in every drag mode, see {@link #commitPanelOffset()}.
+     */
+    private boolean mNestedScrollInProgress;
+    private boolean mNestedMotion;
+
+    /**
+     * Raw y of the touch the panel currently reflects. {@link #lastY} runs ahead of it
+     * between two frames, the difference is applied once per frame by {@link #mDragFrameCallback}.
+     */
+    private float mAppliedY;
+    private long mLastEventTimeNanos;
+    private boolean mDragFrameScheduled;
+
+    private boolean mPredictMotion = false;
+    private long mFrameIntervalNanos = DEFAULT_FRAME_INTERVAL_NANOS;
+
+    private final Choreographer.FrameCallback mDragFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mDragFrameScheduled = false;
+
+            final float predictedOffset = mPredictMotion ? predictDragOffset(frameTimeNanos) : 0;
+            applyDrag(lastY + predictedOffset);
+            flushSlide();
+            // A finger that stopped sends no more events, keep stepping until the prediction is dropped.
+            if (predictedOffset != 0) scheduleDragFrame();
+        }
+    };
+
+    /**
+     * Settles the panel instead of {@link #mScroller} and the bounce when enabled, stepped by
+     * {@link #mSpringFrameCallback}. It keeps its velocity while the panel is caught.
+     */
+    private final PanelSpring mSpring = new PanelSpring();
+    private boolean mSpringEnabled;
+    private boolean mSpringRunning;
+    private boolean mSpringCaught;
+    private long mSpringFrameTimeNanos;
+
+    private final Choreographer.FrameCallback mSpringFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (!mSpringRunning) return;
+
+            long elapsed = mSpringFrameTimeNanos == 0 ? mFrameIntervalNanos : frameTimeNanos - mSpringFrameTimeNanos;
+            // Do not catch up on a long stall in one go.
+            if (elapsed > 4 * mFrameIntervalNanos) elapsed = 4 * mFrameIntervalNanos;
+            mSpringFrameTimeNanos = frameTimeNanos;
+
+            final boolean atRest = mSpring.step(elapsed);
+            applySpringPosition(mSpring.getPosition());
+            flushSlide();
+
+            if (atRest) {
+                finishSpring();
+            } else {
+                postFrameCallback(this);
+            }
+        }
+    };
+
+    private ValueAnimator mBounceAnimator;
+    private OvershootInterpolator mBounceInterpolator;
+    private float mBounceStart;
+    private float mBounceDiff;
+    private int mBouncePhases;
+    private boolean mBouncing;
+
+    /**
+     * Frame time the bounce started at on the virtual clock, -1 until its next frame, and the
+     * play time it has reached, see {@link #doVirtualBounceFrame(long)}.
+     */
+    private long mBounceStartTimeNanos = -1;
+    private long mBouncePlayTime;
+
+    private final ValueAnimator.AnimatorUpdateListener mBounceUpdateListener = new ValueAnimator.AnimatorUpdateListener() {
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+            final float phase = animation.getAnimatedFraction() * mBouncePhases;
+
+            final float translationY;
+            if (phase < 1f) {
+                translationY = mBounceStart
+                        + (mBounceDiff - mBounceStart) * mBounceInterpolator.getInterpolation(phase);
+            } else {
+                translationY = mBounceDiff * (1f - mBounceInterpolator.getInterpolation(phase - 1f));
+            }
+
+            setPanelTranslationY(translationY);
+        }
+    };
+
+    /**
+     * Whether the children are currently moved by {@link #offsetPanel(int)} instead of layout passes.
+     */
+    private boolean mOffsetMotion;
+
+    /**
+     * Listeners are replaced by a new array when one is added or removed, a dispatch walks
+     * the array it started with. The offset is dispatched once per frame by
+     * {@link #mSlideDispatchCallback}, or right after the frame callbacks that move the panel.
+     */
+    private PanelSlideListener[] mSlideListeners = EMPTY_SLIDE_LISTENERS;
+    private int mPanelState = STATE_IDLE;
+    private int mSlideTop;
+    /**
+     * Whether the slide view has been laid out, there is no offset to dispatch before.
+     */
+    private boolean mSlideLaidOut;
+    private int mDispatchedOffset = Integer.MIN_VALUE;
+    private float mDispatchedFraction;
+    private boolean mSlideDispatchScheduled;
+
+    private final Choreographer.FrameCallback mSlideDispatchCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mSlideDispatchScheduled = false;
+            dispatchSlide();
+        }
+    };
+
+    /**
+     * Whether the frame callbacks are run by {@link #doVirtualFrame(long)} instead of the
+     * {@link Choreographer}, while a {@link GestureReplayer} drives the layout.
+     */
+    private boolean mVirtualFrames;
+
+    private GestureRecorder mGestureRecorder;
+
+    private OnGestureMetricsListener mMetricsListener;
+    private LayoutBudget mLayoutBudget;
+    private PanelMetrics mMetrics;
+    private boolean mCollectingMetrics;
+    private long mReleaseTimeNanos;
+    private boolean mLayoutPending;
+
+    /**
+     * Snap states requested by attributes or setters and the tops of the dragger they resolve to.
+     */
+    private final PanelSnapTable mSnapTable = new PanelSnapTable();
+
+    /**
+     * Layout inflated into the slide view the first time the panel is revealed.
+     */
+    private int mSlideContentLayout;
+    private View mSlideContentView;
+    private boolean mSlideContentRequested;
+
+    private LayoutInflater mAsyncInflater;
+    private OnContentAttachedListener mContentAttachedListener;
+
+    protected boolean hasDragger = false;
+
+    public SlidingUpLayout(Context context) {
+        this(context, null);
+    }
+
+    public SlidingUpLayout(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public SlidingUpLayout(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+
+        int upperLayout = 0;
+        int slideLayout = 0;
+        mMaxHeight = -1;
+        mDraggerWidth = -1;
+        mDraggerHeight = -1;
+
+        // Layouts created from code, like recycled list rows, have no attributes to resolve.
+        if (attrs != null || defStyleAttr != 0) {
+            TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.SlidingUpLayout, defStyleAttr, 0);
+            mDraggerResource = a.getResourceId(R.styleable.SlidingUpLayout_dragger, 0);
+            mDraggerDrawable = mDraggerResource != 0
+                    ? DraggerCache.getDrawable(getContext(), mDraggerResource)
+                    : a.getDrawable(R.styleable.SlidingUpLayout_dragger);
+
+            mMaxHeight = a.getDimensionPixelSize(R.styleable.SlidingUpLayout_maxHeight, -1);
+            mMinHeight = a.getDimensionPixelSize(R.styleable.SlidingUpLayout_minHeight, 0);
+            mDraggerWidth = a.getDimensionPixelSize(R.styleable.SlidingUpLayout_draggerWidth, -1);
+            mDraggerHeight = a.getDimensionPixelSize(R.styleable.SlidingUpLayout_draggerHeight, -1);
+
+            int index = a.getInt(R.styleable.SlidingUpLayout_gravity, -1);
+            if (index >= 0) {
+                setGravity(index);
+            }
+
+            mDragMode = a.getInt(R.styleable.SlidingUpLayout_dragMode, DRAG_MODE_LAYOUT);
+            mDrawDragger = a.getBoolean(R.styleable.SlidingUpLayout_drawDragger, false);
+            mPredictMotion = a.getBoolean(R.styleable.SlidingUpLayout_predictMotion, false);
+            mPanelOpaque = a.getBoolean(R.styleable.SlidingUpLayout_panelOpaque, false);
+            mOverlay = a.getBoolean(R.styleable.SlidingUpLayout_overlay, false);
+            mParallaxFactor = a.getFloat(R.styleable.SlidingUpLayout_parallaxFactor, 0);
+            mReveal = a.getBoolean(R.styleable.SlidingUpLayout_reveal, false);
+            mSpringEnabled = a.getBoolean(R.styleable.SlidingUpLayout_spring, false);
+            mSpring.setStiffness(a.getFloat(R.styleable.SlidingUpLayout_springStiffness,
+                    PanelSpring.DEFAULT_STIFFNESS));
+            mSpring.setDampingRatio(a.getFloat(R.styleable.SlidingUpLayout_springDampingRatio,
+                    PanelSpring.DEFAULT_DAMPING_RATIO));
+            mCommitRevealHeight = a.getBoolean(R.styleable.SlidingUpLayout_commitRevealHeight, false);
+
+            mSnapTable.setSnapToBounds(a.getBoolean(R.styleable.SlidingUpLayout_snapToBounds, false));
+            TypedValue anchor = a.peekValue(R.styleable.SlidingUpLayout_anchorPoint);
+            if (anchor != null) {
+                if (anchor.type == TypedValue.TYPE_FRACTION) {
+                    mSnapTable.setAnchorFraction(a.getFraction(R.styleable.SlidingUpLayout_anchorPoint, 1, 1, -1));
+                } else {
+                    mSnapTable.setAnchorHeight(a.getDimensionPixelSize(R.styleable.SlidingUpLayout_anchorPoint, -1));
+                }
+            }
+            mSlideContentLayout = a.getResourceId(R.styleable.SlidingUpLayout_slideContentLayout, 0);
+
+            int snapHeightsId = a.getResourceId(R.styleable.SlidingUpLayout_snapHeights, 0);
+            if (snapHeightsId != 0) {
+                TypedArray heights = getResources().obtainTypedArray(snapHeightsId);
+                final int[] snapHeights = new int[heights.length()];
+                for (int i = 0; i < snapHeights.length; i++) {
+                    snapHeights[i] = heights.getDimensionPixelSize(i, 0);
+                }
+                heights.recycle();
+                mSnapTable.setSnapHeights(snapHeights);
+            }
+
+            upperLayout = a.getResourceId(R.styleable.SlidingUpLayout_upperLayout, 0);
+            slideLayout = a.getResourceId(R.styleable.SlidingUpLayout_slideLayout, 0);
+
+            a.recycle();
+        }
+
+        if (mDraggerDrawable == null) {
+            mDraggerDrawable = DraggerCache.getDrawable(getContext(), DEFAULT_DRAGGER_RESOURCE);
+        }
+
+        init();
+
+        mDefaultMinHeight = mMinHeight;
+        mDefaultMaxHeight = mMaxHeight;
+
+        if (upperLayout != 0 || slideLayout != 0) inflateAsync(upperLayout, slideLayout);
+    }
+
+    protected void init() {
+        /**
+         * Initialize dragger button.
+         */
+        if (mDrawDragger) {
+            mDraggerDrawable.setCallback(this);
+        } else {
+            mDraggerBtn = new Button(getContext());
+            mDraggerBtn.setBackground(mDraggerDrawable);
+            mDraggerBtn.setOnTouchListener(this);
+        }
+        measureDragger();
+
+        mScroller = new PanelScroller(getContext());
+        final ViewConfiguration configuration = ViewConfiguration.get(getContext());
+        mMinimumVelocity = configuration.getScaledMinimumFlingVelocity();
+        mMaximumVelocity = configuration.getScaledMaximumFlingVelocity();
+        mTouchSlop = configuration.getScaledTouchSlop();
+
+        /**
+         * One animator drives the dragger and the slide view, it is reused by every release.
+         */
+        mBounceInterpolator = new OvershootInterpolator(1.2f);
+        mBounceAnimator = new ValueAnimator();
+        mBounceAnimator.setFloatValues(0f, 1f);
+        mBounceAnimator.setInterpolator(new LinearInterpolator());
+        mBounceAnimator.addUpdateListener(mBounceUpdateListener);
+        mBounceAnimator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                // The animator is only seeked on the virtual clock, doVirtualBounceFrame() ends that bounce.
+                if (!mVirtualFrames) finishBounce();
+            }
+        });
+
+        if (mMaxHeight != -1 && mMaxHeight < mMinHeight) mMaxHeight = mMinHeight;
+    }
+
+    int deltaY = 0;
+
+    @Override
+    public boolean dispatchTouchEvent(MotionEvent ev) {
+        if (mGestureRecorder != null) mGestureRecorder.record(ev);
+        return super.dispatchTouchEvent(ev);
+    }
+
+    @Override
+    public boolean onTouch(View v, MotionEvent event) {
+        onDraggerTouchEvent(event);
+        return false;
+    }
+
+    @Override
+    public boolean onInterceptTouchEvent(MotionEvent ev) {
+        final int action = ev.getActionMasked();
+        if (mDrawDragger && hasDragger && action == MotionEvent.ACTION_DOWN
+                && isInDragger(ev.getX(), ev.getY())) {
+            return true;
+        }
+        if (action == MotionEvent.ACTION_DOWN && findStackedDragger(ev.getX(), ev.getY()) >= 0) {
+            return true;
+        }
+
+        if (hasDragger && !isBeingDragged && !mNestedScrollInProgress) {
+            switch (action) {
+                case MotionEvent.ACTION_DOWN:
+                    mInitialMotionX = ev.getX();
+                    mInitialMotionY = ev.getY();
+                    mContentDragged = false;
+                    break;
+
+                case MotionEvent.ACTION_MOVE:
+                    if (shouldDragContent(ev)) {
+                        mContentDragged = true;
+                        startDrag(ev, -1);
+                        // The children lose the rest of the gesture.
+                        final ViewParent parent = getParent();
+                        if (parent != null) parent.requestDisallowInterceptTouchEvent(true);
+                        return true;
+                    }
+                    break;
+            }
+        }
+        return super.onInterceptTouchEvent(ev);
+    }
+
+    /**
+     * Whether a move on the slide view has passed the touch slop vertically in a direction the
+     * panel can go, and the content under the touch can not scroll that way first when the
+     * panel collapses. Nested scrolling children report their scrolls through
+     * {@link #onNestedPreScroll(View, int, int, int[])} instead.
+     */
+    private boolean shouldDragContent(MotionEvent ev) {
+        final float dy = ev.getY() - mInitialMotionY;
+        if (Math.abs(dy) <= mTouchSlop || Math.abs(dy) <= Math.abs(ev.getX() - mInitialMotionX)) {
+            return false;
+        }
+
+        final int x = (int) mInitialMotionX;
+        final int y = (int) mInitialMotionY;
+        if (y < mSlideView.getTop() || y >= mSlideView.getBottom()) return false;
+
+        syncGeometry(-1);
+        final int top = getDraggerTop(-1);
+        if (dy < 0) return top > mGeometry.getMinTop();
+
+        return top < mGeometry.getMaxTop() && !canScroll(mSlideView, -1,
+                x - mSlideView.getLeft(), y - mSlideView.getTop());
+    }
+
+    /**
+     * @param direction negative to check scrolling up, positive to check scrolling down
+     * @param x x of the touch relative to {@code v}
+     * @param y y of the touch relative to {@code v}
+     * @return whether {@code v} or one of its descendants under the touch can scroll vertically
+     */
+    private static boolean canScroll(View v, int direction, int x, int y) {
+        if (v.canScrollVertically(direction)) return true;
+
+        if (v instanceof ViewGroup) {
+            final ViewGroup group = (ViewGroup) v;
+            final int scrolledX = x + v.getScrollX();
+            final int scrolledY = y + v.getScrollY();
+            for (int i = group.getChildCount() - 1; i >= 0; i--) {
+                final View child = group.getChildAt(i);
+                if (scrolledX >= child.getLeft() && scrolledX < child.getRight()
+                        && scrolledY >= child.getTop() && scrolledY < child.getBottom()
+                        && canScroll(child, direction,
+                        scrolledX - child.getLeft(), scrolledY - child.getTop())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        final int action = event.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN) {
+            mTouchedPanel = findStackedDragger(event.getX(), event.getY());
+            if (mTouchedPanel >= 0) setStackedDraggerPressed(mTouchedPanel, true);
+        }
+
+        if (mTouchedPanel >= 0) {
+            onDraggerTouchEvent(event);
+
+            if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+                setStackedDraggerPressed(mTouchedPanel, false);
+                mTouchedPanel = -1;
+            }
+            return true;
+        }
+
+        if (mDrawDragger && hasDragger) {
+            if (action == MotionEvent.ACTION_DOWN) {
+                mDraggerTouched = isInDragger(event.getX(), event.getY());
+                if (mDraggerTouched) setDraggerPressed(true);
+            }
+
+            if (mDraggerTouched) {
+                onDraggerTouchEvent(event);
+
+                if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+                    mDraggerTouched = false;
+                    setDraggerPressed(false);
+                }
+                return true;
+            }
+        }
+
+        if (!mContentDragged && hasDragger && !isBeingDragged && !mNestedScrollInProgress) {
+            // No child took the gesture, watch it here until it turns into a drag.
+            if (action == MotionEvent.ACTION_DOWN) {
+                mInitialMotionX = event.getX();
+                mInitialMotionY = event.getY();
+                if (mInitialMotionY >= mSlideView.getTop() && mInitialMotionY < mSlideView.getBottom()) {
+                    return true;
+                }
+            } else if (action == MotionEvent.ACTION_MOVE && shouldDragContent(event)) {
+                mContentDragged = true;
+                startDrag(event, -1);
+            }
+        }
+
+        if (mContentDragged) {
+            onDraggerTouchEvent(event);
+
+            if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+                mContentDragged = false;
+            }
+            return true;
+        }
+        return super.onTouchEvent(event);
+    }
+
+    private boolean isInDragger(float x, float y) {
+        return mDraggerRect.contains((int) x, (int) (y - mDraggerTranslationY));
+    }
+
+    /**
+     * @return the index of the stacked panel whose dragger is under the point, or -1
+     */
+    private int findStackedDragger(float x, float y) {
+        if (x < mStackDraggerLeft || x >= mStackDraggerLeft + mDraggerWidth) return -1;
+
+        for (int i = 0; i < mStackCount; i++) {
+            if (mStackedPanels[i].getVisibility() != GONE
+                    && y >= mStackDraggerTops[i] && y < mStackDraggerTops[i] + mDraggerHeight) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void setStackedDraggerPressed(int panel, boolean pressed) {
+        final Drawable drawable = mStackDraggerDrawables[panel];
+        final int[] state = pressed ? PRESSED_ENABLED_STATE_SET : getDrawableState();
+        if (drawable.isStateful() && drawable.setState(state)) invalidate();
+    }
+
+    /**
+     * Only invalidate when the pressed state of the drawn dragger actually changes.
+     */
+    private void setDraggerPressed(boolean pressed) {
+        final int[] state = pressed ? PRESSED_ENABLED_STATE_SET : getDrawableState();
+        if (mDraggerDrawable.isStateful() && mDraggerDrawable.setState(state)) {
+            invalidate(mDraggerRect.left, mDraggerRect.top + (int) mDraggerTranslationY,
+                    mDraggerRect.right, mDraggerRect.bottom + (int) mDraggerTranslationY);
+        }
+    }
+
+    /**
+     * Handle a touch event on the dragger, whether it is a child button or drawn by the layout.
+     */
+    private void onDraggerTouchEvent(MotionEvent event) {
+        if (mVelocityTracker == null) mVelocityTracker = VelocityTracker.obtain();
+
+        // The dragger moves with the gesture, track the velocity in screen coordinates.
+        final float offsetX = event.getRawX() - event.getX();
+        final float offsetY = event.getRawY() - event.getY();
+        event.offsetLocation(offsetX, offsetY);
+        mVelocityTracker.addMovement(event);
+        event.offsetLocation(-offsetX, -offsetY);
+
+        switch (event.getAction()) {
+            case MotionEvent.ACTION_DOWN:
+                startDrag(event, mTouchedPanel);
+                break;
+
+            case MotionEvent.ACTION_MOVE:
+                // The historical samples of the batch have already been fed to the
+                // velocity tracker, only the newest position matters for the panel.
+                isBeingDragged =  true;
+                setPanelState(STATE_DRAGGING);
+                lastY = event.getRawY();
+                mLastEventTimeNanos = event.getEventTime() * 1000000L;
+                scheduleDragFrame();
+                break;
+
+            case MotionEvent.ACTION_UP:
+                flushPendingDrag();
+                mVelocityTracker.computeCurrentVelocity(1000, mMaximumVelocity);
+                int velocityY = (int) mVelocityTracker.getYVelocity();
+
+                if (mSpringCaught && !isBeingDragged) {
+                    startSpring(Math.round(mSpring.getTarget()), mSpring.getVelocity());
+                } else if (isBeingDragged && mSnapTable.getCount() > 0 && mActivePanel < 0) {
+                    settleToSnap(Math.abs(velocityY) > mMinimumVelocity ? velocityY : 0);
+                    playAnimation(0);
+                } else if (isBeingDragged && Math.abs(velocityY) > mMinimumVelocity) {
+                    fling(velocityY);
+                    playAnimation(0);
+                } else {
+                    if (isBeingDragged) commitPanelOffset();
+                    if (settlesWithSpring() && mActivePanel < 0) {
+                        // Let the spring take back an overshoot that was caught under the finger.
+                        if (mSlideView.getTranslationY() != 0) startSpring(originalTop, 0);
+                    } else {
+                        playAnimation(settlesWithSpring() ? 0 : deltaY - originalTop);
+                    }
+                }
+                mSpringCaught = false;
+                if (mScroller.isFinished() && !mSpringRunning) mActivePanel = -1;
+                updateSettleState();
+                isBeingDragged = false;
+                recycleVelocityTracker();
+                releaseGestureMetrics();
+                break;
+
+            case MotionEvent.ACTION_CANCEL:
+                flushPendingDrag();
+                if (isBeingDragged) commitPanelOffset();
+                isBeingDragged = false;
+                recycleVelocityTracker();
+                playAnimation(0);
+                mSpringCaught = false;
+                mActivePanel = -1;
+                setPanelState(STATE_IDLE);
+                releaseGestureMetrics();
+                break;
+
+            default:
+                isBeingDragged = false;
+                break;
+        }
+    }
+
+    /**
+     * Catch the panel where it is and follow the gesture of {@code event} from there.
+     *
+     * @param panel index of the stacked panel to move, or -1 for the slide view
+     */
+    private void startDrag(MotionEvent event, int panel) {
+        if (!mScroller.isFinished()) {
+            mScroller.abortAnimation();
+            commitPanelOffset();
+        }
+        // The spring keeps its velocity, a release without dragging hands it back.
+        mSpringCaught = mSpringRunning && mActivePanel == panel;
+        if (mSpringRunning && !mSpringCaught) {
+            stopSpring();
+            commitPanelOffset();
+        }
+        stopSpring();
+        mActivePanel = panel;
+        // Catch the bounce where it is, the next release settles it from there.
+        cancelBounce();
+        cancelPendingDrag();
+        startGestureMetrics();
+        isBeingDragged = false;
+        originalTop = getDraggerTop();
+        lastY = event.getRawY();
+        mAppliedY = lastY;
+        mLastEventTimeNanos = event.getEventTime() * 1000000L;
+        deltaY = originalTop;
+    }
+
+    private void scheduleDragFrame() {
+        if (!mDragFrameScheduled) {
+            mDragFrameScheduled = true;
+            postFrameCallback(mDragFrameCallback);
+        }
+    }
+
+    /**
+     * Move the panel to the last touch position right away, without prediction.
+     */
+    private void flushPendingDrag() {
+        cancelPendingDrag();
+        applyDrag(lastY);
+    }
+
+    private void cancelPendingDrag() {
+        if (mDragFrameScheduled) {
+            mDragFrameScheduled = false;
+            removeFrameCallback(mDragFrameCallback);
+        }
+    }
+
+    /**
+     * Slide the panel by the whole pixels between {@code targetY} and {@link #mAppliedY}.
+     * The sub-pixel remainder is kept for the next frame.
+     *
+     * @param targetY raw y the panel should reflect
+     */
+    private void applyDrag(float targetY) {
+        final int dy = (int) (targetY - mAppliedY);
+        if (dy != 0) {
+            mAppliedY += dy;
+            slideUp(dy);
+        }
+    }
+
+    /**
+     * Extrapolate the finger from the last touch sample to the time the frame
+     * started at {@code frameTimeNanos} will be presented, one frame interval later.
+     * Motion event times and frame times both come from the monotonic clock.
+     * Without an event for more than two frame intervals the finger is taken to have
+     * stopped and nothing is predicted.
+     *
+     * @param frameTimeNanos frame time passed to the {@link Choreographer.FrameCallback}
+     * @return predicted distance in pixels from {@link #lastY}
+     */
+    private float predictDragOffset(long frameTimeNanos) {
+        if (mVelocityTracker == null) return 0;
+
+        final long horizonNanos = frameTimeNanos + mFrameIntervalNanos - mLastEventTimeNanos;
+        if (horizonNanos <= 0 || horizonNanos > 2 * mFrameIntervalNanos) return 0;
+
+        // pixels per millisecond
+        mVelocityTracker.computeCurrentVelocity(1, mMaximumVelocity / 1000f);
+        return mVelocityTracker.getYVelocity() * horizonNanos / 1000000f;
+    }
+
+    /**
+     * Re-calculate the top position relative to its parent
+     * and its height, then call {@link #requestLayout()}.
+     *
+     * @param dy difference in y-axis
+     */
+    void slideUp(int dy) {
+        beginTraceSection(TRACE_SLIDE_SECTION);
+        try {
+            if (mActivePanel >= 0) {
+                slideStackedPanel(mActivePanel, dy);
+                return;
+            }
+
+            final int previousTop = originalTop;
+            syncGeometry();
+            originalTop = mGeometry.clampTop(originalTop + dy);
+
+            LayoutParams slideLp = (LayoutParams) mSlideView.getLayoutParams();
+            slideLp.height = mGeometry.getHeightForTop(originalTop);
+
+
+            applyParallax(originalTop);
+            if (originalTop != previousTop) onSlideTopChanged(originalTop);
+
+            if (mReveal && !mRevealExpanded) {
+                // The slide view has its committed height, give it the full one back.
+                mRevealExpanded = true;
+                requestLayout();
+            }
+
+            if (mDragMode == DRAG_MODE_OFFSET || mNestedMotion || mReveal) {
+                // No measure pass follows an offset, reveal the content here.
+                inflateRevealedSlideContent();
+                if (!mOffsetMotion) {
+                    mOffsetMotion = true;
+                    updateChildLayers();
+                }
+                offsetPanel(originalTop - previousTop);
+                return;
+            }
+
+            if (mUpperView != null) {
+                if (mDraggerBtn != null) mDraggerBtn.setTop(originalTop);
+            } else
+                mSlideView.setTop(originalTop + mDraggerHeight);
+
+            requestLayout();
+        } finally {
+            endTraceSection();
+        }
+    }
+
+    /**
+     * Update the bounds of {@link #mGeometry} from the current slide view.
+     */
+    private void syncGeometry() {
+        syncGeometry(mActivePanel);
+    }
+
+    /**
+     * Update the bounds of {@link #mGeometry} for a given panel.
+     *
+     * @param panel index of a stacked panel, or -1 for the slide view
+     */
+    private void syncGeometry(int panel) {
+        if (panel >= 0) {
+            mGeometry.setBounds(mStackedPanels[panel].getBottom(), mStackMinHeights[panel],
+                    mStackMaxHeights[panel], mDraggerHeight);
+        } else {
+            mGeometry.setBounds(getSlideBottom(), mMinHeight, mMaxHeight, mDraggerHeight);
+        }
+    }
+
+    /**
+     * Resize the stacked panel {@code panel} by moving its top, and offset the panels above it
+     * with their draggers. Nothing is measured, the panel is laid out once the motion ends.
+     *
+     * @param dy difference in y-axis
+     */
+    private void slideStackedPanel(int panel, int dy) {
+        final int previousTop = originalTop;
+        syncGeometry();
+        originalTop = mGeometry.clampTop(originalTop + dy);
+
+        final int moved = originalTop - previousTop;
+        if (moved == 0) return;
+
+        final View view = mStackedPanels[panel];
+        view.getLayoutParams().height = mGeometry.getHeightForTop(originalTop);
+        view.setTop(view.getTop() + moved);
+        mStackDraggerTops[panel] += moved;
+        offsetStackedPanels(panel, moved);
+        mStackMotion = true;
+
+        if (isUpperViewResized()) mUpperView.setBottom(mUpperView.getBottom() + moved);
+        invalidate();
+    }
+
+    /**
+     * Offset the stacked panels above {@code panel} and their draggers by {@code dy}.
+     */
+    private void offsetStackedPanels(int panel, int dy) {
+        for (int i = panel - 1; i >= 0; i--) {
+            mStackedPanels[i].offsetTopAndBottom(dy);
+            mStackDraggerTops[i] += dy;
+        }
+    }
+
+    /**
+     * @return the bottom of the visible part of the slide view
+     */
+    private int getSlideBottom() {
+        return mReveal ? mRevealBottom : mSlideView.getBottom();
+    }
+
+    /**
+     * @param height height of this layout
+     * @param slideLp layout params of the slide view
+     * @return where {@link #layoutVertical(int, int, int, int)} puts the bottom of the slide view
+     */
+    private int getSlideBottom(int height, LayoutParams slideLp) {
+        return height - getPaddingTop() - getPaddingBottom() - slideLp.bottomMargin;
+    }
+
+    /**
+     * Settle the panel from the release velocity of the dragger, the scroller
+     * is stepped by {@link #computeScroll()}.
+     *
+     * @param velocityY release velocity in pixels per second
+     */
+    private void fling(int velocityY) {
+        syncGeometry();
+        if (settlesWithSpring()) {
+            startSpring(velocityY < 0 ? mGeometry.getMinTop() : mGeometry.getMaxTop(), velocityY);
+            return;
+        }
+
+        mScroller.fling(originalTop, velocityY, mGeometry.getMinTop(), mGeometry.getMaxTop());
+        postInvalidateOnAnimation();
+    }
+
+    /**
+     * Settle the panel at the snap state picked by {@link PanelSnapTable#findSnapTop(int, int)},
+     * the scroller is stepped by {@link #computeScroll()}.
+     *
+     * @param velocityY release velocity in pixels per second, 0 for a slow release
+     */
+    private void settleToSnap(int velocityY) {
+        final int target = mSnapTable.findSnapTop(originalTop, velocityY);
+        if (settlesWithSpring()) {
+            startSpring(target, velocityY);
+            return;
+        }
+
+        final int distance = target - originalTop;
+        if (distance == 0) {
+            commitPanelOffset();
+            return;
+        }
+
+        int duration = DEFAULT_ANIMATOR_DURATION;
+        if (velocityY != 0) {
+            duration = Math.min(duration, 3 * Math.round(1000f * Math.abs((float) distance / velocityY)));
+        }
+        mScroller.startScroll(originalTop, distance, duration);
+        postInvalidateOnAnimation();
+    }
+
+    /**
+     * Turn the snap states into tops of the dragger for the current bounds of the panel.
+     * Called by every layout pass, the table is only rebuilt when the bounds or the states changed.
+     */
+    private void resolveSnapTable(int slideBottom) {
+        mGeometry.setBounds(slideBottom, mMinHeight, mMaxHeight, mDraggerHeight);
+        if (mSlideView == null || mSlideView.getVisibility() == GONE) {
+            mSnapTable.clear();
+            return;
+        }
+        mSnapTable.resolve(slideBottom, mMinHeight, mMaxHeight, mDraggerHeight);
+    }
+
+    /**
+     * Let {@link #mSpring} move the panel from its current top to {@code target}.
+     *
+     * @param velocity initial velocity in pixels per second
+     */
+    private void startSpring(int target, float velocity) {
+        // Start where the panel is drawn, with the overshoot of a caught spring.
+        final float position = mActivePanel < 0 ? originalTop + mSlideView.getTranslationY() : originalTop;
+        mSpring.start(position, velocity, target);
+        if (mSpring.isAtRest()) {
+            if (mActivePanel < 0) setPanelTranslationY(0);
+            commitPanelOffset();
+            return;
+        }
+
+        if (mSpringRunning) removeFrameCallback(mSpringFrameCallback);
+        mSpringRunning = true;
+        mSpringFrameTimeNanos = 0;
+        postFrameCallback(mSpringFrameCallback);
+    }
+
+    /**
+     * Move the panel to the position of the spring. Whatever the spring overshoots past the
+     * bounds of the slide view is shown as a translation, like the bounce does.
+     */
+    private void applySpringPosition(float position) {
+        syncGeometry();
+        final int top = mGeometry.clampTop(Math.round(position));
+        slideUp(top - originalTop);
+
+        if (mActivePanel < 0) setPanelTranslationY(position - top);
+    }
+
+    /**
+     * Stop the spring where it is, it keeps its velocity. The overshoot stays on the panel
+     * as a translation so that it does not jump, the next settle starts from it.
+     */
+    private void stopSpring() {
+        if (!mSpringRunning) return;
+
+        removeFrameCallback(mSpringFrameCallback);
+        mSpringRunning = false;
+    }
+
+    /**
+     * @return whether the panel settles with {@link #mSpring} instead of {@link #mScroller} and the bounce
+     */
+    private boolean settlesWithSpring() {
+        return mSpringEnabled;
+    }
+
+    private void postFrameCallback(Choreographer.FrameCallback callback) {
+        if (!mVirtualFrames) Choreographer.getInstance().postFrameCallback(callback);
+    }
+
+    private void removeFrameCallback(Choreographer.FrameCallback callback) {
+        if (!mVirtualFrames) Choreographer.getInstance().removeFrameCallback(callback);
+    }
+
+    /**
+     * Run the frame callbacks, the bounce and {@link #mScroller} from {@link #doVirtualFrame(long)}
+     * instead of the {@link Choreographer}, the callbacks that are pending and a running bounce move
+     * over to the new clock.
+     */
+    void setVirtualFrames(boolean virtual) {
+        if (mVirtualFrames == virtual) return;
+
+        if (virtual) {
+            removeFrameCallback(mDragFrameCallback);
+            removeFrameCallback(mSpringFrameCallback);
+            removeFrameCallback(mSlideDispatchCallback);
+            if (mBouncing) {
+                mBouncePlayTime = mBounceAnimator.getCurrentPlayTime();
+                mBounceStartTimeNanos = -1;
+            }
+        }
+        // A running scroll can not move over to the other clock, it finishes right away.
+        if (!mScroller.isFinished()) {
+            mScroller.abortAnimation();
+            scrollPanelTo(mScroller.getFinalY(), true);
+        }
+        mScroller.setVirtualClock(virtual);
+        mVirtualFrames = virtual;
+        if (virtual) {
+            // Stopped once virtual, so that the end of the animator does not end the bounce.
+            if (mBouncing) mBounceAnimator.cancel();
+        } else {
+            if (mDragFrameScheduled) postFrameCallback(mDragFrameCallback);
+            if (mSpringRunning) postFrameCallback(mSpringFrameCallback);
+            if (mSlideDispatchScheduled) postFrameCallback(mSlideDispatchCallback);
+            if (mBouncing) {
+                mBounceAnimator.start();
+                mBounceAnimator.setCurrentPlayTime(mBouncePlayTime);
+            }
+        }
+    }
+
+    /**
+     * Run the pending frame callbacks and the bounce in the order they run in a {@link Choreographer}
+     * frame, then step {@link #mScroller} like the draw pass of the frame does.
+     *
+     * @param frameTimeNanos time of the frame on the virtual clock, in the time base of the motion events
+     */
+    void doVirtualFrame(long frameTimeNanos) {
+        if (mDragFrameScheduled) mDragFrameCallback.doFrame(frameTimeNanos);
+        if (mSpringRunning) mSpringFrameCallback.doFrame(frameTimeNanos);
+        if (mBouncing) doVirtualBounceFrame(frameTimeNanos);
+        if (mSlideDispatchScheduled) mSlideDispatchCallback.doFrame(frameTimeNanos);
+        if (!mScroller.isFinished()) doVirtualScrollFrame(frameTimeNanos);
+    }
+
+    /**
+     * Seek the bounce animator to the virtual clock, which runs its update listener like a frame of its own.
+     */
+    private void doVirtualBounceFrame(long frameTimeNanos) {
+        if (mBounceStartTimeNanos < 0) mBounceStartTimeNanos = frameTimeNanos - mBouncePlayTime * 1000000L;
+
+        mBouncePlayTime = (frameTimeNanos - mBounceStartTimeNanos) / 1000000L;
+        if (mBouncePlayTime < mBounceAnimator.getDuration()) {
+            mBounceAnimator.setCurrentPlayTime(mBouncePlayTime);
+        } else {
+            mBounceAnimator.end();
+            finishBounce();
+        }
+    }
+
+    /**
+     * Step {@link #mScroller} to the virtual clock, like {@link #computeScroll()} does on the animation clock.
+     */
+    private void doVirtualScrollFrame(long frameTimeNanos) {
+        mScroller.setVirtualTime(frameTimeNanos / 1000000L);
+        if (mScroller.computeScrollOffset()) {
+            scrollPanelTo(mScroller.getCurrY(), mScroller.isFinished());
+        }
+    }
+
+    /**
+     * @return whether the panel still needs a frame or a layout pass to settle
+     */
+    boolean hasPendingFrame() {
+        return mDragFrameScheduled || mSpringRunning || mBouncing || !mScroller.isFinished()
+                || mSlideDispatchScheduled || isLayoutRequested();
+    }
+
+    private void finishSpring() {
+        mSpringRunning = false;
+        if (mActivePanel < 0) setPanelTranslationY(0);
+        commitPanelOffset();
+        mActivePanel = -1;
+        setPanelState(STATE_IDLE);
+        finishGestureMetricsIfSettled();
+    }
+
+    @Override
+    public void computeScroll() {
+        // Stepped by doVirtualScrollFrame() on the virtual clock.
+        if (mVirtualFrames) return;
+
+        if (mScroller.computeScrollOffset()) {
+            scrollPanelTo(mScroller.getCurrY(), mScroller.isFinished());
+        }
+    }
+
+    /**
+     * Move the panel to the position of {@link #mScroller}, and commit it once the scroller has finished.
+     */
+    private void scrollPanelTo(int top, boolean finished) {
+        slideUp(top - originalTop);
+
+        if (finished) {
+            commitPanelOffset();
+            mActivePanel = -1;
+            setPanelState(STATE_IDLE);
+            finishGestureMetricsIfSettled();
+        } else {
+            postInvalidateOnAnimation();
+        }
+    }
+
+    private void recycleVelocityTracker() {
+        if (mVelocityTracker != null) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
+        }
+    }
+
+    @Override
+    public boolean onStartNestedScroll(View child, View target, int nestedScrollAxes) {
+        return hasDragger && child == mSlideView && !isBeingDragged
+                && (nestedScrollAxes & SCROLL_AXIS_VERTICAL) != 0;
+    }
+
+    @Override
+    public void onNestedScrollAccepted(View child, View target, int axes) {
+        super.onNestedScrollAccepted(child, target, axes);
+
+        if (!mScroller.isFinished()) {
+            mScroller.abortAnimation();
+            commitPanelOffset();
+        }
+        if (mSpringRunning) {
+            stopSpring();
+            commitPanelOffset();
+        }
+        mActivePanel = -1;
+        cancelBounce();
+        setPanelTranslationY(0);
+
+        mNestedScrollInProgress = true;
+        mNestedMotion = true;
+        setPanelState(STATE_DRAGGING);
+        startGestureMetrics();
+        originalTop = getDraggerTop();
+    }
+
+    /**
+     * Expand the panel before the content scrolls down.
+     */
+    @Override
+    public void onNestedPreScroll(View target, int dx, int dy, int[] consumed) {
+        if (dy > 0) {
+            final int top = originalTop;
+            slideUp(-dy);
+            consumed[1] = top - originalTop;
+        }
+    }
+
+    /**
+     * Collapse the panel with what is left once the content can not scroll up any further.
+     */
+    @Override
+    public void onNestedScroll(View target, int dxConsumed, int dyConsumed,
+                               int dxUnconsumed, int dyUnconsumed) {
+        if (dyUnconsumed < 0) slideUp(-dyUnconsumed);
+    }
+
+    @Override
+    public boolean onNestedPreFling(View target, float velocityX, float velocityY) {
+        syncGeometry();
+        final boolean expand = velocityY > 0 && originalTop > mGeometry.getMinTop();
+        final boolean collapse = velocityY < 0 && originalTop < mGeometry.getMaxTop()
+                && !target.canScrollVertically(-1);
+        if (!expand && !collapse) return false;
+
+        // Scroll velocities are positive when the content moves up, the panel top moves the other way.
+        final int velocity = (int) -velocityY;
+        if (mSnapTable.getCount() > 0) {
+            settleToSnap(velocity);
+        } else {
+            fling(velocity);
+        }
+        updateSettleState();
+        return true;
+    }
+
+    @Override
+    public void onStopNestedScroll(View target) {
+        super.onStopNestedScroll(target);
+        mNestedScrollInProgress = false;
+
+        if (mScroller.isFinished() && !mSpringRunning) {
+            if (mSnapTable.getCount() > 0) {
+                settleToSnap(0);
+            } else {
+                commitPanelOffset();
+            }
+        }
+        updateSettleState();
+        releaseGestureMetrics();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+
+        final Display display = getDisplay();
+        final float refreshRate = display != null ? display.getRefreshRate() : 0;
+        mFrameIntervalNanos = refreshRate > 0
+                ? (long) (1000000000L / refreshRate) : DEFAULT_FRAME_INTERVAL_NANOS;
+
+        // Shown before the first layout pass, which the child did not request again.
+        if (!hasDragger && mSlideView != null) setupDragger();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+
+        if (!mScroller.isFinished()) {
+            mScroller.abortAnimation();
+            commitPanelOffset();
+        }
+        recycleVelocityTracker();
+        cancelPendingDrag();
+        stopSpring();
+        mSpringCaught = false;
+
+        cancelBounce();
+        setPanelTranslationY(0);
+
+        mOffsetMotion = false;
+        mNestedMotion = false;
+        mNestedScrollInProgress = false;
+        mContentDragged = false;
+        mActivePanel = -1;
+        mTouchedPanel = -1;
+        updateChildLayers();
+
+        if (mSlideDispatchScheduled) {
+            removeFrameCallback(mSlideDispatchCallback);
+            mSlideDispatchScheduled = false;
+        }
+        setPanelState(STATE_IDLE);
+
+        mLayoutPending = false;
+        finishGestureMetricsIfSettled();
+    }
+
+    /**
+     * Move the dragger and the edges of the children by {@code dy} without
+     * running a measure or layout pass. The height written to the layout params
+     * of the slide view is committed by {@link #commitPanelOffset()}.
+     *
+     * @param dy difference in y-axis
+     */
+    private void offsetPanel(int dy) {
+        if (dy == 0) return;
+
+        if (mUpperView != null) {
+            if (mDraggerBtn != null) {
+                mDraggerBtn.offsetTopAndBottom(dy);
+            } else {
+                mDraggerRect.offset(0, dy);
+                invalidate();
+            }
+
+            LayoutParams upperLp = (LayoutParams) mUpperView.getLayoutParams();
+            if (upperLp.weight > 0 && !mOverlay) mUpperView.setBottom(mUpperView.getBottom() + dy);
+        }
+
+        if (mReveal) {
+            mSlideView.offsetTopAndBottom(dy);
+        } else {
+            mSlideView.setTop(mSlideView.getTop() + dy);
+        }
+
+        if (mStackCount > 0) {
+            offsetStackedPanels(mStackCount, dy);
+            invalidate();
+        }
+    }
+
+    /**
+     * Lay out the children once with the height reached by the gesture.
+     * Only needed in {@link #DRAG_MODE_OFFSET} and after a nested scroll,
+     * {@link #slideUp(int)} already requests a layout for every move in {@link #DRAG_MODE_LAYOUT}.
+     */
+    private void commitPanelOffset() {
+        if (mStackMotion) {
+            mStackMotion = false;
+            requestLayout();
+        } else if (mReveal) {
+            // The slide view already shows its final part, only lay out what depends on its height.
+            if (mCommitRevealHeight) {
+                mRevealExpanded = false;
+                requestLayout();
+            } else if (mOffsetMotion && isUpperViewResized()) {
+                requestLayout();
+            }
+        } else if (mDragMode == DRAG_MODE_OFFSET || mNestedMotion) {
+            requestLayout();
+        }
+        mNestedMotion = false;
+
+        if (mOffsetMotion) {
+            mOffsetMotion = false;
+            updateChildLayers();
+        }
+    }
+
+    /**
+     * Render the children that only change position while the panel moves into
+     * hardware layers, and restore their layer type once the motion ends. Children
+     * whose bounds change keep drawing normally, a layer would be re-rendered every frame.
+     *
+     * @see LayoutParams#layerOnSlide
+     */
+    private void updateChildLayers() {
+        for (int i = 0; i < getChildCount(); i++) {
+            final View child = getChildAt(i);
+            final LayoutParams lp = (LayoutParams) child.getLayoutParams();
+
+            final boolean promote = lp.layerOnSlide && child.getVisibility() != GONE
+                    && isTranslatedOnly(child);
+            if (promote && !lp.layerPromoted) {
+                lp.savedLayerType = child.getLayerType();
+                lp.layerPromoted = true;
+                child.setLayerType(LAYER_TYPE_HARDWARE, null);
+            } else if (!promote && lp.layerPromoted) {
+                lp.layerPromoted = false;
+                child.setLayerType(lp.savedLayerType, null);
+            }
+        }
+    }
+
+    /**
+     * @return whether the current motion of the panel moves {@code child} without resizing it
+     */
+    private boolean isTranslatedOnly(View child) {
+        if (child == mDraggerBtn) return mBouncing || mOffsetMotion;
+        if (child == mSlideView) return mBouncing || (mReveal && mOffsetMotion);
+        if (child == mUpperView) return mOverlay && mParallaxFactor != 0 && mOffsetMotion;
+        return false;
+    }
+
+    /**
+     * @return whether the height of the upper view follows the panel
+     */
+    private boolean isUpperViewResized() {
+        return mUpperView != null && !mOverlay && mUpperView.getVisibility() != GONE
+                && ((LayoutParams) mUpperView.getLayoutParams()).weight > 0;
+    }
+
+    /**
+     * 动画效果
+     *
+     * <p>Bounce the panel away from the direction of the gesture and back. If a previous
+     * bounce was caught mid-flight the panel starts from its current translation, and
+     * {@code dy == 0} only brings that translation back to zero.</p>
+     *
+     * @param dy difference in y-axis between the start and the end of the gesture
+     */
+    private void playAnimation(int dy) {
+        // Stacked panels do not bounce, only settle a bounce of the slide view that was caught.
+        if (mActivePanel >= 0) dy = 0;
+
+        final float start = mSlideView.getTranslationY();
+        if (dy == 0 && start == 0) return;
+
+        if (dy < 0) mBounceDiff = DEFAULT_DIFFERENCE;
+        else if (dy > 0) mBounceDiff = -DEFAULT_DIFFERENCE;
+        else mBounceDiff = 0;
+
+        mBounceStart = start;
+        mBouncePhases = mBounceDiff == 0 ? 1 : 2;
+
+        cancelBounce();
+        mBounceAnimator.setDuration(mBouncePhases * DEFAULT_ANIMATOR_DURATION);
+        mBouncing = true;
+        updateChildLayers();
+        if (mVirtualFrames) {
+            mBounceStartTimeNanos = -1;
+            mBouncePlayTime = 0;
+        } else {
+            mBounceAnimator.start();
+        }
+    }
+
+    /**
+     * Stop the bounce where it is, the translation is kept.
+     */
+    private void cancelBounce() {
+        mBounceAnimator.cancel();
+        // A bounce on the virtual clock never started the animator, the cancel did not end it.
+        if (mBouncing) finishBounce();
+    }
+
+    private void finishBounce() {
+        mBouncing = false;
+        updateChildLayers();
+        finishGestureMetricsIfSettled();
+    }
+
+    private void setPanelTranslationY(float translationY) {
+        if (mDraggerBtn != null) {
+            mDraggerBtn.setTranslationY(translationY);
+        } else if (mDraggerTranslationY != translationY) {
+            mDraggerTranslationY = translationY;
+            invalidate();
+        }
+        if (mSlideView != null) mSlideView.setTranslationY(translationY);
+    }
+
+    /**
+     * @return the top of the dragger relative to this layout, without translation
+     */
+    private int getDraggerTop() {
+        return getDraggerTop(mActivePanel);
+    }
+
+    /**
+     * @param panel index of a stacked panel, or -1 for the slide view
+     * @return the top of the dragger of that panel, without translation
+     */
+    private int getDraggerTop(int panel) {
+        if (panel >= 0) return mStackDraggerTops[panel];
+        return mDraggerBtn != null ? mDraggerBtn.getTop() : mDraggerRect.top;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        if (mRestoredState != null && mSlideView != null) applyRestoredState(heightMeasureSpec);
+        if (mSlideContentRequested && mSlideView != null) inflateSlideContent();
+        inflateRevealedSlideContent();
+
+        beginTraceSection(TRACE_MEASURE_SECTION);
+        final long start = mCollectingMetrics ? System.nanoTime() : 0;
+
+        if (mOverlay && hasDragger) {
+            measureOverlay(widthMeasureSpec, heightMeasureSpec);
+        } else {
+            measureVertical(widthMeasureSpec, heightMeasureSpec);
+        }
+
+        if (mCollectingMetrics) mMetrics.onMeasured(System.nanoTime() - start);
+        endTraceSection();
+    }
+
+    void measureVertical(int widthMeasureSpec, int heightMeasureSpec) {
+        mTotalLength = 0;
+        int maxWidth = 0;
+        int childState = 0;
+        int alternativeMaxWidth = 0;
+        int weightedMaxWidth = 0;
+        boolean allFillParent = true;
+        float totalWeight = 0;
+
+        final int count = getChildCount();
+
+        final int widthMode = MeasureSpec.getMode(widthMeasureSpec);
+        final int heightMode = MeasureSpec.getMode(heightMeasureSpec);
+
+        boolean matchWidth = false;
+        boolean skippedMeasure = false;
+
+        for (int i = 0; i < count; i++) {
+            final View child = getChildAt(i);
+
+            // The dragger button has already been measured.
+            if (child != null && child == mDraggerBtn)
+                continue;
+
+            if (child == null) {
+                mTotalLength += measureNullChild(i);
+                continue;
+            }
+
+            if (child.getVisibility() == View.GONE) {
+                i += getChildrenSkippedCount(child, i);
+                continue;
+            }
+
+            LayoutParams lp = (LayoutParams) child.getLayoutParams();
+
+            totalWeight += lp.weight;
+
+            if (heightMode == MeasureSpec.EXACTLY && lp.height == 0 && lp.weight > 0) {
+                // Optimization: don't bother measuring children who are going to use
+                // leftover space. These views will get measured again down below if
+                // there is any leftover space.
+                final int totalLength = mTotalLength;
+                mTotalLength = Math.max(totalLength, totalLength + lp.topMargin + lp.bottomMargin);
+                skippedMeasure = true;
+            } else {
+                int oldHeight = Integer.MIN_VALUE;
+
+                if (lp.height == 0 && lp.weight > 0) {
+                    // heightMode is either UNSPECIFIED or AT_MOST, and this
+                    // child wanted to stretch to fill available space.
+                    // Translate that to WRAP_CONTENT so that is does not end up
+                    // with a height of 0.
+                    oldHeight = 0;
+                    lp.height = LayoutParams.WRAP_CONTENT;
+                }
+
+
+                // Determine how big this child would like to be. If this or
+                // previous children have given a weight, then we allow it to
+                // use all available space (and we will shrink things later
+                // if needed).
+                if (child == mSlideView && mReveal) {
+                    measureRevealedSlideView(child, widthMeasureSpec, heightMeasureSpec);
+                } else {
+                    measureChildBeforeLayout(
+                            child, i, widthMeasureSpec, 0, heightMeasureSpec,
+                            totalWeight == 0 ? mTotalLength : 0);
+                }
+
+                if (oldHeight != Integer.MIN_VALUE) {
+                    lp.height = oldHeight;
+                }
+
+                final int childHeight = getLaidOutHeight(child) + (lp.stackIndex >= 0 ? mDraggerHeight : 0);
+                final int totalLength = mTotalLength;
+                mTotalLength = Math.max(totalLength, totalLength + childHeight + lp.topMargin +
+                        lp.bottomMargin + getNextLocationOffset(child));
+
+            }
+
+            boolean matchWidthLocally = false;
+            if (widthMode != MeasureSpec.EXACTLY && lp.width == LayoutParams.MATCH_PARENT) {
+                // The width of the sliding up layout will scale, and at least one
+                // child said it wanted to match our width. Set a flat
+                // indicating that we need to remeasure at least that view when
+                // we know our width.
+                matchWidth = true;
+                matchWidthLocally = true;
+            }
+
+            final int margin = lp.leftMargin + lp.rightMargin;
+            final int measuredWidth = child.getMeasuredWidth() + margin;
+            maxWidth = Math.max(maxWidth, measuredWidth);
+            childState = combineMeasuredStates(childState, child.getMeasuredState());
+
+            allFillParent = allFillParent && lp.width == LayoutParams.MATCH_PARENT;
+            if (lp.weight > 0) {
+                /**
+                 * Width of weighted Views are bogus if we end up
+                 * remeasuring, so keep them separate.
+                 */
+                weightedMaxWidth = Math.max(weightedMaxWidth,
+                        matchWidthLocally ? margin : measuredWidth);
+            } else {
+                alternativeMaxWidth = Math.max(alternativeMaxWidth,
+                        matchWidthLocally ? margin : measuredWidth);
+            }
+
+            i += getChildrenSkippedCount(child, i);
+        }
+
+        // Add in our padding
+        mTotalLength += getPaddingTop() + getPaddingBottom();
+
+        int heightSize = mTotalLength;
+
+        // Check against our minimum height
+        heightSize = Math.max(heightSize, getSuggestedMinimumHeight());
+
+        // Reconcile our calculated size with the heightMeasureSpec
+        int heightSizeAndState = resolveSizeAndState(heightSize, heightMeasureSpec, 0);
+        heightSize = heightSizeAndState & MEASURED_SIZE_MASK;
+
+        // Either expand children with weight to take up available space or
+        // shrink them if they extend beyond our current bounds. If we skipped
+        // measurement on any children, we need to measure them now.
+        int delta = heightSize - mTotalLength;
+        if (skippedMeasure || delta != 0 && totalWeight > 0.0f) {
+            mGeometry.startWeightDistribution(delta, totalWeight);
+
+            mTotalLength = 0;
+
+            for (int i = 0; i < count; i++) {
+                final View child = getChildAt(i);
+
+                if (child.getVisibility() == View.GONE) {
+                    continue;
+                }
+
+                LayoutParams lp = (LayoutParams) child.getLayoutParams();
+
+                float childExtra = lp.weight;
+                if (childExtra > 0) {
+                    // Child said it could absorb extra space -- give him his share
+                    int share = mGeometry.nextWeightShare(childExtra);
+                    final int childWidthMeasureSpec = getChildMeasureSpec(widthMeasureSpec,
+                            getPaddingLeft() + getPaddingRight() +
+                                    lp.leftMargin + lp.rightMargin, lp.width);
+
+                    // TODO: Use a field like lp.isMeasured to figure out if this
+                    // child has been previously measured
+                    if ((lp.height != 0) || (heightMode != MeasureSpec.EXACTLY)) {
+                        // child was measured once already above...
+                        // base new measurement on stored values
+                        int childHeight = child.getMeasuredHeight() + share;
+                        if (childHeight < 0) {
+                            childHeight = 0;
+                        }
+
+                        measureChildCounted(child, childWidthMeasureSpec,
+                                MeasureSpec.makeMeasureSpec(childHeight, MeasureSpec.EXACTLY));
+                    } else {
+                        // child was skipped in the loop above.
+                        // Measure for this first time here
+                        measureChildCounted(child, childWidthMeasureSpec,
+                                MeasureSpec.makeMeasureSpec(share > 0 ? share : 0,
+                                        MeasureSpec.EXACTLY));
+                    }
+
+                    childState = combineMeasuredStates(childState, child.getMeasuredState()
+                            & (MEASURED_STATE_MASK >> MEASURED_HEIGHT_STATE_SHIFT));
+                }
+
+                final int margin = lp.leftMargin + lp.rightMargin;
+                final int measuredWidth = child.getMeasuredWidth() + margin;
+                maxWidth = Math.max(maxWidth, measuredWidth);
+
+                boolean matchWidthLocally = widthMode != MeasureSpec.EXACTLY &&
+                        lp.width == LayoutParams.MATCH_PARENT;
+
+                alternativeMaxWidth = Math.max(alternativeMaxWidth,
+                        matchWidthLocally ? margin : measuredWidth);
+
+                allFillParent = allFillParent && lp.width == LayoutParams.MATCH_PARENT;
+
+                final int totalLength = mTotalLength;
+                mTotalLength = Math.max(totalLength, totalLength + getLaidOutHeight(child) +
+                        (lp.stackIndex >= 0 ? mDraggerHeight : 0) +
+                        lp.topMargin + lp.bottomMargin + getNextLocationOffset(child));
+
+            }
+
+            // Add in our padding
+            mTotalLength += getPaddingTop() + getPaddingBottom();
+        } else {
+            alternativeMaxWidth = Math.max(alternativeMaxWidth, weightedMaxWidth);
+        }
+
+        if (!allFillParent && widthMode != MeasureSpec.EXACTLY) {
+            maxWidth = alternativeMaxWidth;
+        }
+
+        maxWidth += getPaddingLeft() + getPaddingRight();
+
+        // Check against our minimum width
+        maxWidth = Math.max(maxWidth, getSuggestedMinimumWidth());
+
+        setMeasuredDimension(resolveSizeAndState(maxWidth, widthMeasureSpec, childState),
+                heightSizeAndState);
+
+        if (matchWidth) {
+            forceUniformWidth(count, heightMeasureSpec);
+        }
+    }
+
+    private void forceUniformWidth(int count, int heightMeasuredSpec) {
+        // Pretent that the linear layout has an exact size.
+        int uniformMeasureSpec = MeasureSpec.makeMeasureSpec(getMeasuredWidth(),
+                MeasureSpec.EXACTLY);
+        for (int i = 0; i < count ; ++i) {
+            final View child = getChildAt(i);
+            if (child.getVisibility() != GONE) {
+                LayoutParams lp = ((LayoutParams) child.getLayoutParams());
+
+                if (lp.width == LayoutParams.MATCH_PARENT) {
+                    // Temporarily force children to reuse their old measured height
+                    int oldHeight = lp.height;
+                    lp.height = child.getMeasuredHeight();
+
+                    // Remeasure with new dimensions
+                    measureChildWithMarginsCounted(child, uniformMeasureSpec, 0, heightMeasuredSpec, 0);
+                    lp.height = oldHeight;
+                }
+            }
+        }
+    }
+
+    private void measureDragger() {
+        LayoutParams lp = null;
+        if (mDraggerBtn != null) {
+            lp = (LayoutParams) mDraggerBtn.getLayoutParams();
+
+            if (lp == null)
+                lp = new LayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT);
+
+            lp.gravity = Gravity.CENTER_HORIZONTAL;
+        }
+
+        if (mDraggerWidth == -1) {
+            mDraggerWidth = DraggerCache.getIntrinsicWidth(getContext(), DEFAULT_DRAGGER_RESOURCE);
+        } else if (lp != null) {
+            lp.width = mDraggerWidth;
+        }
+        if (mDraggerHeight == -1) {
+            mDraggerHeight = DraggerCache.getIntrinsicHeight(getContext(), DEFAULT_DRAGGER_RESOURCE);
+        } else if (lp != null) {
+            lp.height = mDraggerHeight;
+        }
+
+        // A drawn dragger only needs its size.
+        if (mDraggerBtn == null) return;
+
+        mDraggerBtn.setLayoutParams(lp);
+
+        mDraggerBtn.measure(MeasureSpec.makeMeasureSpec(mDraggerWidth, MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(mDraggerHeight, MeasureSpec.EXACTLY));
+    }
+
+    /**
+     * <p>Returns the number of children to skip after measuring/laying out
+     * the specified child.</p>
+     *
+     * @param child the child after which we want to skip children
+     * @param index the index of the child after which we want to skip children
+     * @return the number of children to skip, 0 by default.
+     */
+    private int getChildrenSkippedCount(View child, int index) {
+        return 0;
+    }
+
+    /**
+     * <p>Returns the size (width or height) that should be occupied by a null
+     * child.</p>
+     *
+     * @param childIndex childIndex the index of the null child
+     * @return the width or height of the child depending on the orientation
+     */
+    private int measureNullChild(int childIndex) {
+        return 0;
+    }
+
+    /**
+     * <p>Measure the child according to the parent's measure specs. This
+     * method should be overriden by subclasses to force the sizing of
+     * childern. This method is called by {@link #measureVertical(int, int)}.</p>
+     *
+     * @param child the child to measure
+     * @param childIndex the index of the child in this view
+     * @param widthMeasureSpec horizontal space requirements as imposed by the parent
+     * @param totalWidth extra space that has been used up by the parent horizontally
+     * @param heightMeasureSpec vertical space requirements as imposed by the parent
+     * @param totalHeight extra space that has been used up by the parent vertically
+     */
+    void measureChildBeforeLayout(View child, int childIndex,
+                                  int widthMeasureSpec, int totalWidth, int heightMeasureSpec,
+                                  int totalHeight) {
+        measureChildWithMarginsCounted(child, widthMeasureSpec, totalWidth,
+                heightMeasureSpec, totalHeight);
+    }
+
+    /**
+     * <p>Same as {@link #measureChildWithMargins(View, int, int, int, int)} but goes
+     * through {@link #measureChildCounted(View, int, int)}.</p>
+     */
+    private void measureChildWithMarginsCounted(View child,
+                                                int parentWidthMeasureSpec, int widthUsed,
+                                                int parentHeightMeasureSpec, int heightUsed) {
+        final LayoutParams lp = (LayoutParams) child.getLayoutParams();
+
+        final int childWidthMeasureSpec = getChildMeasureSpec(parentWidthMeasureSpec,
+                getPaddingLeft() + getPaddingRight() + lp.leftMargin + lp.rightMargin
+                        + widthUsed, lp.width);
+        final int childHeightMeasureSpec = getChildMeasureSpec(parentHeightMeasureSpec,
+                getPaddingTop() + getPaddingBottom() + lp.topMargin + lp.bottomMargin
+                        + heightUsed, lp.height);
+
+        measureChildCounted(child, childWidthMeasureSpec, childHeightMeasureSpec);
+    }
+
+    /**
+     * <p>Measure the child and count it in the gesture metrics. {@link View#measure(int, int)}
+     * already skips the child's onMeasure when the specs did not change and the child has not
+     * requested a layout since its last measure.</p>
+     *
+     * @see #remeasureChildren()
+     */
+    private void measureChildCounted(View child, int childWidthMeasureSpec, int childHeightMeasureSpec) {
+        child.measure(childWidthMeasureSpec, childHeightMeasureSpec);
+        if (mCollectingMetrics) mMetrics.childMeasureCount++;
+    }
+
+    /**
+     * Force every child to run its onMeasure on the next layout pass, even when its measure
+     * specs did not change, for children whose size depends on state they do not track.
+     */
+    public void remeasureChildren() {
+        for (int i = 0; i < getChildCount(); i++) {
+            getChildAt(i).forceLayout();
+        }
+        requestLayout();
+    }
+
+    /**
+     * <p>Return the location offset of the specified child. This can be used
+     * by subclasses to change the location of a given widget.</p>
+     *
+     * @param child the child for which to obtain the location offset
+     * @return the location offset in pixels
+     */
+    int getLocationOffset(View child) {
+        return 0;
+    }
+
+    /**
+     * <p>Return the size offset of the next sibling of the specified child.
+     * This can be used by subclasses to change the location of the widget
+     * following<code>child</code>.</p>
+     *
+     * @param child the child whose next sibling will be moved
+     * @return the location offset of the next child in pixels
+     */
+    int getNextLocationOffset(View child) {
+        return 0;
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        beginTraceSection(TRACE_LAYOUT_SECTION);
+        final long start = mCollectingMetrics ? System.nanoTime() : 0;
+
+        layoutVertical(l, t, r, b);
+        if (mSlideView != null) {
+            resolveSnapTable(getSlideBottom());
+            syncGeometry(-1);
+            applyParallax(getDraggerTop(-1));
+            mSlideLaidOut = true;
+            onSlideTopChanged(getDraggerTop(-1));
+        }
+
+        if (mCollectingMetrics) mMetrics.onLaidOut(System.nanoTime() - start);
+        endTraceSection();
+
+        mLayoutPending = false;
+        finishGestureMetricsIfSettled();
+    }
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        final SavedState ss = new SavedState(super.onSaveInstanceState());
+        ss.slideHeight = -1;
+        ss.snapState = PanelSnapTable.NONE;
+        if (mSlideView == null) return ss;
+
+        if (mRestoredState != null) {
+            // Not measured since the restore, keep what is still pending.
+            ss.slideHeight = mRestoredState.slideHeight;
+            ss.snapState = mRestoredState.snapState;
+            return ss;
+        }
+
+        // Save where a running settle is going, not where it currently is.
+        final int top;
+        if (mActivePanel >= 0) {
+            top = getDraggerTop(-1);
+        } else if (mSpringRunning) {
+            top = Math.round(mSpring.getTarget());
+        } else {
+            top = mScroller.isFinished() ? getDraggerTop(-1) : mScroller.getFinalY();
+        }
+        syncGeometry(-1);
+        ss.slideHeight = mGeometry.getHeightForTop(top);
+        ss.snapState = mSnapTable.getStateForTop(top);
+        return ss;
+    }
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+
+        final SavedState ss = (SavedState) state;
+        super.onRestoreInstanceState(ss.getSuperState());
+
+        if (ss.slideHeight >= 0) {
+            mRestoredState = ss;
+            requestLayout();
+        }
+    }
+
+    /**
+     * Give the slide view the height of the restored state before it is measured for
+     * the first time, so the panel is laid out once at its final position. A saved snap
+     * state is resolved against the new size of the layout, the height is used otherwise.
+     */
+    private void applyRestoredState(int heightMeasureSpec) {
+        final SavedState ss = mRestoredState;
+        mRestoredState = null;
+
+        final LayoutParams slideLp = (LayoutParams) mSlideView.getLayoutParams();
+        int height = ss.slideHeight;
+
+        if (ss.snapState != PanelSnapTable.NONE && MeasureSpec.getMode(heightMeasureSpec) == MeasureSpec.EXACTLY) {
+            resolveSnapTable(getSlideBottom(MeasureSpec.getSize(heightMeasureSpec), slideLp));
+            final int top = mSnapTable.getTopForState(ss.snapState);
+            if (top >= 0) height = mGeometry.getHeightForTop(top);
+        }
+
+        if (height < mMinHeight) height = mMinHeight;
+        if (mMaxHeight != -1 && height > mMaxHeight) height = mMaxHeight;
+        slideLp.height = height;
+    }
+
+    @Override
+    protected boolean verifyDrawable(Drawable who) {
+        if (super.verifyDrawable(who) || (mDrawDragger && who == mDraggerDrawable)) return true;
+
+        for (int i = 0; i < mStackCount; i++) {
+            if (who == mStackDraggerDrawables[i]) return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected void drawableStateChanged() {
+        super.drawableStateChanged();
+        if (mDrawDragger && !mDraggerTouched && mDraggerDrawable.isStateful()) {
+            mDraggerDrawable.setState(getDrawableState());
+        }
+    }
+
+    @Override
+    public void requestLayout() {
+        super.requestLayout();
+        mLayoutPending = true;
+
+        // The upper or the slide view was GONE when both were added, showing it requests a layout.
+        if (!hasDragger && mSlideView != null) setupDragger();
+    }
+
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        final long start = mCollectingMetrics ? System.nanoTime() : 0;
+
+        super.dispatchDraw(canvas);
+
+        for (int i = 0; i < mStackCount; i++) {
+            if (mStackedPanels[i].getVisibility() == GONE) continue;
+
+            final Drawable drawable = mStackDraggerDrawables[i];
+            drawable.setBounds(mStackDraggerLeft, mStackDraggerTops[i],
+                    mStackDraggerLeft + mDraggerWidth, mStackDraggerTops[i] + mDraggerHeight);
+            drawable.draw(canvas);
+        }
+
+        if (mDrawDragger && hasDragger) {
+            final int saveCount = canvas.save();
+            canvas.translate(0, mDraggerTranslationY);
+            mDraggerDrawable.setBounds(mDraggerRect);
+            mDraggerDrawable.draw(canvas);
+            canvas.restoreToCount(saveCount);
+        }
+
+        if (mCollectingMetrics) mMetrics.onFrameDrawn(System.nanoTime() - start);
+    }
+
+    /**
+     * Only draw the part of the upper view above an opaque slide view, and nothing of it
+     * when the slide view covers it completely. The dragger row is not taken into account,
+     * the handle leaves the rest of its row see-through.
+     */
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+        if (child == mSlideView && mReveal) {
+            // Hide the part of the slide view that is not revealed yet.
+            final int saveCount = canvas.save();
+            canvas.clipRect(child.getLeft(), 0, child.getRight(), mRevealBottom);
+            final boolean more = drawCountedChild(canvas, child, drawingTime);
+            canvas.restoreToCount(saveCount);
+            return more;
+        }
+
+        if (child != mUpperView || mSlideView == null || mSlideView.getVisibility() != VISIBLE
+                || mSlideView.getLeft() > child.getLeft() || mSlideView.getRight() < child.getRight()
+                || !isSlideViewOpaque()) {
+            return drawCountedChild(canvas, child, drawingTime);
+        }
+
+        final int panelTop = (int) Math.ceil(mSlideView.getTop() + mSlideView.getTranslationY());
+        final float childTranslationY = child.getTranslationY();
+        if (panelTop >= child.getBottom() + childTranslationY) {
+            return drawCountedChild(canvas, child, drawingTime);
+        }
+        if (panelTop <= child.getTop() + childTranslationY) return false;
+
+        final int saveCount = canvas.save();
+        canvas.clipRect(child.getLeft(), 0, child.getRight(), panelTop);
+        final boolean more = drawCountedChild(canvas, child, drawingTime);
+        canvas.restoreToCount(saveCount);
+        return more;
+    }
+
+    private boolean drawCountedChild(Canvas canvas, View child, long drawingTime) {
+        if (mCollectingMetrics) mMetrics.childDrawCount++;
+        return super.drawChild(canvas, child, drawingTime);
+    }
+
+    /**
+     * @return whether the slide view hides what is drawn behind it
+     */
+    private boolean isSlideViewOpaque() {
+        return mPanelOpaque || mSlideView.isOpaque();
+    }
+
+    /**
+     * Measure the children in overlay mode: the upper view gets the whole height of the
+     * layout whatever the height of the slide view, so its measure spec does not change
+     * while the panel moves and {@link View#measure(int, int)} skips its onMeasure.
+     */
+    void measureOverlay(int widthMeasureSpec, int heightMeasureSpec) {
+        final int count = getChildCount();
+        final int widthMode = MeasureSpec.getMode(widthMeasureSpec);
+        int maxWidth = 0;
+        int childState = 0;
+        int upperLength = 0;
+        int slideLength = 0;
+
+        if (mSlideView.getVisibility() != GONE) {
+            final LayoutParams lp = (LayoutParams) mSlideView.getLayoutParams();
+            if (mReveal) {
+                measureRevealedSlideView(mSlideView, widthMeasureSpec, heightMeasureSpec);
+            } else {
+                measureChildWithMarginsCounted(mSlideView, widthMeasureSpec, 0, heightMeasureSpec, mDraggerHeight);
+            }
+            slideLength = getLaidOutHeight(mSlideView) + lp.topMargin + lp.bottomMargin + mDraggerHeight;
+            maxWidth = mSlideView.getMeasuredWidth() + lp.leftMargin + lp.rightMargin;
+            childState = combineMeasuredStates(childState, mSlideView.getMeasuredState());
+        }
+
+        for (int i = 0; i < mStackCount; i++) {
+            final View panel = mStackedPanels[i];
+            if (panel.getVisibility() == GONE) continue;
+
+            final LayoutParams lp = (LayoutParams) panel.getLayoutParams();
+            measureChildWithMarginsCounted(panel, widthMeasureSpec, 0, heightMeasureSpec, slideLength);
+            slideLength += panel.getMeasuredHeight() + lp.topMargin + lp.bottomMargin + mDraggerHeight;
+            maxWidth = Math.max(maxWidth, panel.getMeasuredWidth() + lp.leftMargin + lp.rightMargin);
+            childState = combineMeasuredStates(childState, panel.getMeasuredState());
+        }
+
+        if (mUpperView.getVisibility() != GONE) {
+            final LayoutParams lp = (LayoutParams) mUpperView.getLayoutParams();
+
+            // A weighted upper view takes all the space, there is nothing to share.
+            final int oldHeight = lp.height;
+            if (lp.height == 0 && lp.weight > 0) lp.height = LayoutParams.MATCH_PARENT;
+            measureChildWithMarginsCounted(mUpperView, widthMeasureSpec, 0, heightMeasureSpec, 0);
+            lp.height = oldHeight;
+
+            upperLength = mUpperView.getMeasuredHeight() + lp.topMargin + lp.bottomMargin;
+            maxWidth = Math.max(maxWidth, mUpperView.getMeasuredWidth() + lp.leftMargin + lp.rightMargin);
+            childState = combineMeasuredStates(childState, mUpperView.getMeasuredState());
+        }
+
+        mTotalLength = Math.max(upperLength, slideLength) + getPaddingTop() + getPaddingBottom();
+
+        final int heightSize = Math.max(mTotalLength, getSuggestedMinimumHeight());
+        maxWidth = Math.max(maxWidth + getPaddingLeft() + getPaddingRight(), getSuggestedMinimumWidth());
+
+        setMeasuredDimension(resolveSizeAndState(maxWidth, widthMeasureSpec, childState),
+                resolveSizeAndState(heightSize, heightMeasureSpec, 0));
+
+        if (widthMode != MeasureSpec.EXACTLY) {
+            forceUniformWidth(count, heightMeasureSpec);
+        }
+    }
+
+    /**
+     * Measure the slide view in reveal mode at {@link #mMaxHeight}, or at all the available
+     * height without a limit. This spec does not change while the panel moves, so the slide
+     * view is only measured again once its content changes. Until the panel settles with
+     * {@link #mCommitRevealHeight}, the slide view is measured at the height it shows.
+     */
+    private void measureRevealedSlideView(View child, int widthMeasureSpec, int heightMeasureSpec) {
+        final LayoutParams lp = (LayoutParams) child.getLayoutParams();
+        final int oldHeight = lp.height;
+        if (!mCommitRevealHeight || mRevealExpanded) {
+            lp.height = mMaxHeight != -1 ? mMaxHeight : LayoutParams.MATCH_PARENT;
+        }
+        measureChildWithMarginsCounted(child, widthMeasureSpec, 0, heightMeasureSpec, mDraggerHeight);
+        lp.height = oldHeight;
+    }
+
+    /**
+     * @return the height {@code child} takes in the layout, which is only the visible part
+     * of the slide view in reveal mode
+     */
+    private int getLaidOutHeight(View child) {
+        if (child != mSlideView || !mReveal) return child.getMeasuredHeight();
+
+        final int height = child.getLayoutParams().height;
+        return height >= 0 && height < child.getMeasuredHeight() ? height : child.getMeasuredHeight();
+    }
+
+    /**
+     * Move the upper view in overlay mode by {@link #mParallaxFactor} of the distance
+     * the dragger at {@code top} has travelled from its collapsed position. The geometry
+     * must be in sync.
+     */
+    private void applyParallax(int top) {
+        if (!mOverlay || mUpperView == null || mParallaxFactor == 0) return;
+        mUpperView.setTranslationY((top - mGeometry.getMaxTop()) * mParallaxFactor);
+    }
+
+    /**
+     * Position the children during a layout pass.
+     *
+     * @param left
+     * @param top
+     * @param right
+     * @param bottom
+     */
+    void layoutVertical(int left, int top, int right, int bottom) {
+        final int paddingLeft = getPaddingLeft();
+
+        int childTop;
+        int childLeft;
+
+        // Where right end of child should go
+        final int width = right - left;
+        int childRight = width - getPaddingRight();
+
+        // Space available for child
+        int childSpace = width - paddingLeft - getPaddingRight();
+
+        final int count = getChildCount();
+
+        final int majorGravity = mGravity & Gravity.VERTICAL_GRAVITY_MASK;
+        final int minorGravity = mGravity & Gravity.RELATIVE_HORIZONTAL_GRAVITY_MASK;
+
+        childTop = PanelGeometry.getMajorAxisStart(majorGravity, getPaddingTop(), bottom - top, mTotalLength);
+
+        // Where the stacked panels start piling up, above the dragger of the slide view
+        int stackBottom = bottom - top - getPaddingTop() - getPaddingBottom();
+        mStackDraggerLeft = paddingLeft + (childSpace - mDraggerWidth) / 2;
+
+        for (int i = 0; i < count; i++) {
+            final View child = getChildAt(i);
+            if (child == null) {
+                childTop += measureNullChild(i);
+            } else if (child.getVisibility() != GONE) {
+                final int childWidth = child.getMeasuredWidth();
+                final int childHeght = child.getMeasuredHeight();
+
+                final LayoutParams lp = ((LayoutParams) child.getLayoutParams());
+
+                int gravity = lp.gravity;
+                if (gravity < 0) {
+                    gravity = minorGravity;
+                }
+                final int layoutDirection = getLayoutDirection();
+                final int absoluteGravity = Gravity.getAbsoluteGravity(gravity, layoutDirection);
+                childLeft = PanelGeometry.getMinorAxisStart(absoluteGravity & Gravity.HORIZONTAL_GRAVITY_MASK,
+                        paddingLeft, childSpace, childRight, childWidth, lp.leftMargin, lp.rightMargin);
+
+                childTop += lp.topMargin;
+
+                if (child == mDraggerBtn || lp.stackIndex >= 0) {
+                    // Laid out together with the slide view below.
+                    continue;
+                } else if (child == mSlideView && hasDragger) {
+                    // slide view: 一直处于父容器的底部
+                    mRevealBottom = getSlideBottom(bottom - top, lp);
+                    childTop = mRevealBottom - getLaidOutHeight(child);
+                    int draggerTop = childTop - mDraggerHeight;
+                    int draggerLeft = mStackDraggerLeft;
+                    stackBottom = draggerTop - lp.topMargin;
+                    if (mDraggerBtn != null) {
+                        setChildFrame(mDraggerBtn, draggerLeft, draggerTop + getLocationOffset(mDraggerBtn),
+                                mDraggerWidth, mDraggerHeight);
+                    } else {
+                        mDraggerRect.set(draggerLeft, draggerTop,
+                                draggerLeft + mDraggerWidth, draggerTop + mDraggerHeight);
+                    }
+                }
+
+                setChildFrame(child, childLeft, childTop + getLocationOffset(child),
+                        childWidth, childHeght);
+                childTop += childHeght + lp.bottomMargin + getNextLocationOffset(child);
+
+                i += getChildrenSkippedCount(child, i);
+            }
+        }
+
+        for (int i = mStackCount - 1; i >= 0; i--) {
+            final View panel = mStackedPanels[i];
+            if (panel.getVisibility() == GONE) {
+                mStackDraggerTops[i] = stackBottom;
+                continue;
+            }
+
+            final LayoutParams lp = (LayoutParams) panel.getLayoutParams();
+            final int panelWidth = panel.getMeasuredWidth();
+            final int panelHeight = panel.getMeasuredHeight();
+            int gravity = lp.gravity;
+            if (gravity < 0) {
+                gravity = minorGravity;
+            }
+            final int absoluteGravity = Gravity.getAbsoluteGravity(gravity, getLayoutDirection());
+            childLeft = PanelGeometry.getMinorAxisStart(absoluteGravity & Gravity.HORIZONTAL_GRAVITY_MASK,
+                    paddingLeft, childSpace, childRight, panelWidth, lp.leftMargin, lp.rightMargin);
+
+            final int panelTop = stackBottom - lp.bottomMargin - panelHeight;
+            setChildFrame(panel, childLeft, panelTop, panelWidth, panelHeight);
+
+            mStackDraggerTops[i] = panelTop - lp.topMargin - mDraggerHeight;
+            stackBottom = mStackDraggerTops[i];
+        }
+    }
+
+    private void setChildFrame(View child, int left, int top, int width, int height) {
+        child.layout(left, top, left + width, top + height);
+        if (mCollectingMetrics) mMetrics.childLayoutCount++;
+    }
+
+    public void setDraggerBackgroundResource(int resId) {
+        if (resId != 0 && resId == mDraggerResource) {
+            return;
+        }
+
+        Drawable d = null;
+        if (resId != 0) {
+            d = DraggerCache.getDrawable(getContext(), resId);
+        }
+        setDraggerBackground(d);
+        mDraggerResource = resId;
+    }
+
+    public void setDraggerBackground(Drawable drawable) {
+        if (mDraggerDrawable != drawable) {
+            final Drawable previous = mDraggerDrawable;
+            mDraggerDrawable = drawable;
+            mDraggerResource = 0;
+            mDraggerWidth = drawable.getIntrinsicWidth();
+            mDraggerHeight = drawable.getIntrinsicHeight();
+            if (mDraggerBtn != null) {
+                mDraggerBtn.setBackground(drawable);
+            } else {
+                if (previous != null) previous.setCallback(null);
+                drawable.setCallback(this);
+                drawable.setState(getDrawableState());
+                requestLayout();
+                invalidate();
+            }
+
+            measureDragger();
+        }
+    }
+
+    @Override
+    public void addView(View child, int index, ViewGroup.LayoutParams params) {
+        // All the other addView() variants end up here.
+        super.addView(child, index, params);
+
+        if (child != mDraggerBtn) setupDragger();
+    }
+
+    @Override
+    public void onViewRemoved(View child) {
+        super.onViewRemoved(child);
+
+        // setupDragger() moves the dragger by removing it.
+        if (child == mDraggerBtn) return;
+        ((LayoutParams) child.getLayoutParams()).stackIndex = -1;
+        resolveStackedPanels();
+    }
+
+    /**
+     * Once both the upper and the slide view are attached, in whatever order, put
+     * the dragger between them. Neither of the two views may be GONE, {@link #onAttachedToWindow()}
+     * and {@link #requestLayout()} call this again until the dragger is set up.
+     * The first child is the upper view and the last one the slide view, the children in
+     * between are stacked panels.
+     */
+    private void setupDragger() {
+        if (getContentChildCount() < 2) return;
+
+        View first = getChildAt(0);
+        if (first == mDraggerBtn) first = getChildAt(1);
+        View last = getChildAt(getChildCount() - 1);
+        if (last == mDraggerBtn) last = getChildAt(getChildCount() - 2);
+
+        mUpperView = first;
+        if (mSlideView != last) {
+            mSlideView = last;
+            mDefaultSlideHeight = mSlideView.getLayoutParams().height;
+        }
+
+        if (!hasDragger) {
+            if (!(mUpperView.getVisibility() == View.GONE)
+                    && !(mSlideView.getVisibility() == View.GONE)) {
+                hasDragger = true;
+                if (mDraggerBtn != null) addView(mDraggerBtn, getChildCount() - 1);
+            }
+        } else if (mDraggerBtn != null && indexOfChild(mDraggerBtn) != getChildCount() - 2) {
+            // A new slide view was added after the dragger.
+            removeView(mDraggerBtn);
+            addView(mDraggerBtn, getChildCount() - 1);
+        }
+
+        resolveStackedPanels();
+    }
+
+    /**
+     * Collect the children between the upper view and the slide view into the arrays of
+     * stacked panels. Only runs when children are added or removed, moving the panels
+     * allocates nothing.
+     */
+    private void resolveStackedPanels() {
+        final int count = getChildCount();
+        final int capacity = Math.max(0, getContentChildCount() - 2);
+        if (mStackedPanels.length < capacity) {
+            mStackedPanels = Arrays.copyOf(mStackedPanels, capacity);
+            mStackDraggerDrawables = Arrays.copyOf(mStackDraggerDrawables, capacity);
+            mStackDraggerTops = Arrays.copyOf(mStackDraggerTops, capacity);
+            mStackMinHeights = Arrays.copyOf(mStackMinHeights, capacity);
+            mStackMaxHeights = Arrays.copyOf(mStackMaxHeights, capacity);
+        }
+
+        mStackCount = 0;
+        for (int i = 0; i < count; i++) {
+            final View child = getChildAt(i);
+            final LayoutParams lp = (LayoutParams) child.getLayoutParams();
+            if (child == mDraggerBtn || child == mUpperView || child == mSlideView) {
+                lp.stackIndex = -1;
+                continue;
+            }
+
+            final int index = mStackCount++;
+            if (mStackedPanels[index] != child) {
+                mStackedPanels[index] = child;
+                mStackMinHeights[index] = lp.panelMinHeight;
+                mStackMaxHeights[index] = lp.panelMaxHeight;
+            }
+            if (mStackDraggerDrawables[index] == null) {
+                final Drawable drawable = newStackedDraggerDrawable();
+                drawable.setCallback(this);
+                mStackDraggerDrawables[index] = drawable;
+            }
+            lp.stackIndex = index;
+        }
+        // Do not keep removed panels around.
+        for (int i = mStackCount; i < mStackedPanels.length && mStackedPanels[i] != null; i++) {
+            mStackedPanels[i] = null;
+        }
+    }
+
+    /**
+     * @return a new drawable sharing the state of the dragger of the slide view
+     */
+    private Drawable newStackedDraggerDrawable() {
+        if (mDraggerResource != 0) return DraggerCache.getDrawable(getContext(), mDraggerResource);
+
+        final Drawable.ConstantState state = mDraggerDrawable.getConstantState();
+        if (state != null) return state.newDrawable(getResources());
+        return DraggerCache.getDrawable(getContext(), DEFAULT_DRAGGER_RESOURCE);
+    }
+
+    /**
+     * @return the number of panels stacked between the upper view and the slide view
+     */
+    public int getStackedPanelCount() {
+        return mStackCount;
+    }
+
+    /**
+     * Set the range of heights a stacked panel can be dragged to.
+     *
+     * @param panel index of the stacked panel, 0 for the top one
+     * @param minHeight smallest height of the panel
+     * @param maxHeight largest height of the panel, or -1 for no limit
+     */
+    public void setStackedPanelBounds(int panel, int minHeight, int maxHeight) {
+        if (panel < 0 || panel >= mStackCount) {
+            throw new IndexOutOfBoundsException("No stacked panel at " + panel + ", count is " + mStackCount);
+        }
+        mStackMinHeights[panel] = minHeight;
+        mStackMaxHeights[panel] = maxHeight != -1 && maxHeight < minHeight ? minHeight : maxHeight;
+
+        // Kept with the panel for when removing another panel changes its index.
+        final LayoutParams lp = (LayoutParams) mStackedPanels[panel].getLayoutParams();
+        lp.panelMinHeight = mStackMinHeights[panel];
+        lp.panelMaxHeight = mStackMaxHeights[panel];
+    }
+
+    /**
+     * @return the number of children, not counting the dragger button
+     */
+    private int getContentChildCount() {
+        return getChildCount() - (mDraggerBtn != null && mDraggerBtn.getParent() == this ? 1 : 0);
+    }
+
+    /**
+     * Inflate the upper and/or the slide view on a background thread and attach them
+     * on the main thread once both are ready, as the first and the last child. Layouts
+     * that cannot be inflated off the main thread are inflated on it instead.
+     *
+     * @param upperLayout layout resource of the upper view, 0 for none
+     * @param slideLayout layout resource of the slide view, 0 for none
+     *
+     * @attr ref R.styleable#SlidingUpLayout_upperLayout
+     * @attr ref R.styleable#SlidingUpLayout_slideLayout
+     * @see #setOnContentAttachedListener(OnContentAttachedListener)
+     */
+    public void inflateAsync(final int upperLayout, final int slideLayout) {
+        if (mAsyncInflater == null) {
+            mAsyncInflater = LayoutInflater.from(getContext()).cloneInContext(getContext());
+        }
+        final LayoutInflater inflater = mAsyncInflater;
+
+        getInflateHandler().post(new Runnable() {
+            @Override
+            public void run() {
+                final View upper = inflateOrNull(inflater, upperLayout);
+                final View slide = inflateOrNull(inflater, slideLayout);
+
+                sMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        attachContent(upper != null ? upper : inflateOnMainThread(upperLayout), false);
+                        attachContent(slide != null ? slide : inflateOnMainThread(slideLayout), true);
+                    }
+                });
+            }
+        });
+    }
+
+    private View inflateOrNull(LayoutInflater inflater, int resId) {
+        if (resId == 0) return null;
+
+        try {
+            return inflater.inflate(resId, this, false);
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Failed to inflate layout in the background, retrying on the main thread: " + e);
+            return null;
+        }
+    }
+
+    private View inflateOnMainThread(int resId) {
+        return resId == 0 ? null : LayoutInflater.from(getContext()).inflate(resId, this, false);
+    }
+
+    private void attachContent(View content, boolean slide) {
+        if (content == null) return;
+
+        if (slide) addView(content);
+        else addView(content, 0);
+
+        if (mContentAttachedListener != null) mContentAttachedListener.onContentAttached(content, slide);
+    }
+
+    private static synchronized Handler getInflateHandler() {
+        if (sInflateHandler == null) {
+            sInflateThread = new HandlerThread("SlidingUpLayout-inflate", Process.THREAD_PRIORITY_BACKGROUND);
+            sInflateThread.start();
+            sInflateHandler = new Handler(sInflateThread.getLooper());
+            sMainHandler = new Handler(Looper.getMainLooper());
+        }
+        return sInflateHandler;
+    }
+
+    public void setOnContentAttachedListener(OnContentAttachedListener listener) {
+        mContentAttachedListener = listener;
+    }
+
+    public Drawable getDraggerBackground() {
+        return mDraggerDrawable;
+    }
+
+    /**
+     * Settle the released panel at the collapsed or the expanded state, besides the states
+     * added by {@link #setAnchorFraction(float)}, {@link #setAnchorHeight(int)} and
+     * {@link #setSnapHeights(int...)}. Those setters enable snapping on their own, and
+     * without this the panel only settles at their states.
+     *
+     * @attr ref R.styleable#SlidingUpLayout_snapToBounds
+     */
+    public void setSnapToBounds(boolean snap) {
+        if (mSnapTable.isSnapToBounds() != snap) {
+            mSnapTable.setSnapToBounds(snap);
+            requestLayout();
+        }
+    }
+
+    /**
+     * @return whether the released panel settles at snap states instead of bouncing
+     */
+    public boolean isSnapEnabled() {
+        return mSnapTable.isEnabled();
+    }
+
+    /**
+     * Add an anchored snap state between the collapsed (0) and the expanded (1) panel.
+     *
+     * @param fraction position of the anchor, or -1 to remove it
+     *
+     * @attr ref R.styleable#SlidingUpLayout_anchorPoint
+     */
+    public void setAnchorFraction(float fraction) {
+        mSnapTable.setAnchorFraction(fraction);
+        requestLayout();
+    }
+
+    /**
+     * Add an anchored snap state where the slide view is {@code height} pixels high.
+     *
+     * @param height height of the slide view, or -1 to remove the anchor
+     *
+     * @attr ref R.styleable#SlidingUpLayout_anchorPoint
+     */
+    public void setAnchorHeight(int height) {
+        mSnapTable.setAnchorHeight(height);
+        requestLayout();
+    }
+
+    /**
+     * Add snap states where the slide view has the given heights, replacing the
+     * ones set before. Heights outside of the min and max height are clamped.
+     *
+     * @attr ref R.styleable#SlidingUpLayout_snapHeights
+     */
+    public void setSnapHeights(int... heights) {
+        mSnapTable.setSnapHeights(heights);
+        requestLayout();
+    }
+
+    /**
+     * Defer the content of the slide view: the slide child only acts as a container,
+     * and {@code resId} is inflated into it the first time the panel grows past its
+     * min height, or when {@link #inflateSlideContent()} is called.
+     *
+     * @param resId layout resource of the content, 0 to inflate nothing
+     *
+     * @attr ref R.styleable#SlidingUpLayout_slideContentLayout
+     */
+    public void setSlideContentLayout(int resId) {
+        mSlideContentLayout = resId;
+    }
+
+    /**
+     * Inflate the deferred content of the slide view now instead of waiting for
+     * the panel to be revealed. If the slide view is not known yet, the content is
+     * inflated by the next measure pass.
+     *
+     * @return the root of the content, or {@code null} if there is none (yet)
+     *
+     * @see #setSlideContentLayout(int)
+     */
+    public View inflateSlideContent() {
+        if (mSlideContentView != null || mSlideContentLayout == 0) return mSlideContentView;
+
+        if (mSlideView == null) {
+            mSlideContentRequested = true;
+            return null;
+        }
+        if (!(mSlideView instanceof ViewGroup))
+            throw new IllegalStateException("SlidingUpLayout can only inflate the slide content into a ViewGroup");
+
+        mSlideContentRequested = false;
+
+        final ViewGroup container = (ViewGroup) mSlideView;
+        mSlideContentView = LayoutInflater.from(getContext()).inflate(mSlideContentLayout, container, false);
+        container.addView(mSlideContentView);
+        return mSlideContentView;
+    }
+
+    /**
+     * Inflate the deferred content once the slide view is taller than its min height, however
+     * it got there: a drag, {@link #bindState(int, int, int)}, a restored state or its own height.
+     */
+    private void inflateRevealedSlideContent() {
+        if (mSlideContentView == null && mSlideView != null
+                && mSlideView.getLayoutParams().height > mMinHeight) {
+            inflateSlideContent();
+        }
+    }
+
+    /**
+     * @return the deferred content of the slide view, {@code null} until it is inflated
+     */
+    public View getSlideContentView() {
+        return mSlideContentView;
+    }
+
+    public void setMaxHeight(int height) {
+        mMaxHeight = height > mDraggerHeight ? height : -1;
+    }
+
+    public int getMaxHeight() {
+        return mMaxHeight;
+    }
+
+    public void setMinHeight(int height) {
+        mMinHeight = height < mDraggerHeight ? mDraggerHeight : height;
+    }
+
+    public int getMinHeight() {
+        return mMinHeight;
+    }
+
+    /**
+     * Put the panel back to the state it was inflated with, see {@link #bindState(int, int, int)}.
+     */
+    public void reset() {
+        bindState(mDefaultSlideHeight, mDefaultMinHeight, mDefaultMaxHeight);
+    }
+
+    /**
+     * Show the panel with a given state right away, for instance when a recycled list row is
+     * bound to new data. Any motion of the panel is stopped, the dragger and the children are
+     * kept as they are and only a single layout pass is requested. Nothing is allocated.
+     *
+     * @param slideHeight height of the slide view, limited to {@code minHeight} and {@code maxHeight}
+     * @param minHeight smallest height of the slide view
+     * @param maxHeight largest height of the slide view, or -1 for no limit
+     */
+    public void bindState(int slideHeight, int minHeight, int maxHeight) {
+        if (!mScroller.isFinished()) mScroller.abortAnimation();
+        stopSpring();
+        mSpringCaught = false;
+        cancelBounce();
+        cancelPendingDrag();
+        recycleVelocityTracker();
+        setPanelTranslationY(0);
+        isBeingDragged = false;
+        mContentDragged = false;
+        mNestedMotion = false;
+        mStackMotion = false;
+        mActivePanel = -1;
+        setPanelState(STATE_IDLE);
+
+        if (mOffsetMotion) {
+            mOffsetMotion = false;
+            updateChildLayers();
+        }
+
+        mMinHeight = minHeight;
+        mMaxHeight = maxHeight != -1 && maxHeight < minHeight ? minHeight : maxHeight;
+
+        if (mSlideView != null) {
+            if (slideHeight >= 0) {
+                if (slideHeight < mMinHeight) slideHeight = mMinHeight;
+                if (mMaxHeight != -1 && slideHeight > mMaxHeight) slideHeight = mMaxHeight;
+            }
+            mSlideView.getLayoutParams().height = slideHeight;
+        }
+
+        startGestureMetrics();
+        requestLayout();
+        releaseGestureMetrics();
+    }
+
+    /**
+     * Set how the panel follows the dragger.
+     *
+     * @param dragMode either {@link #DRAG_MODE_LAYOUT} or {@link #DRAG_MODE_OFFSET}
+     *
+     * @attr ref R.styleable#SlidingUpLayout_dragMode
+     */
+    public void setDragMode(int dragMode) {
+        if (dragMode != DRAG_MODE_LAYOUT && dragMode != DRAG_MODE_OFFSET)
+            throw new IllegalArgumentException("Unknown drag mode: " + dragMode);
+
+        if (mDragMode != dragMode) {
+            mDragMode = dragMode;
+            requestLayout();
+        }
+    }
+
+    public int getDragMode() {
+        return mDragMode;
+    }
+
+    /**
+     * @return whether the dragger is drawn by the layout instead of hosted as a child button
+     *
+     * @attr ref R.styleable#SlidingUpLayout_drawDragger
+     */
+    public boolean isDraggerDrawn() {
+        return mDrawDragger;
+    }
+
+    /**
+     * Extrapolate the dragged panel to where the finger is expected to be when
+     * the frame is presented, instead of where it was at the last touch sample.
+     *
+     * @attr ref R.styleable#SlidingUpLayout_predictMotion
+     */
+    public void setMotionPredictionEnabled(boolean enabled) {
+        mPredictMotion = enabled;
+    }
+
+    public boolean isMotionPredictionEnabled() {
+        return mPredictMotion;
+    }
+
+    /**
+     * Settle the panel with a damped spring instead of a fixed duration scroll and bounce.
+     * The spring can be caught at any point and keeps its velocity, the settle ends as soon
+     * as the panel is within half a pixel of its target.
+     *
+     * @attr ref R.styleable#SlidingUpLayout_spring
+     */
+    public void setSpringEnabled(boolean enabled) {
+        mSpringEnabled = enabled;
+    }
+
+    /**
+     * @attr ref R.styleable#SlidingUpLayout_spring
+     */
+    public boolean isSpringEnabled() {
+        return mSpringEnabled;
+    }
+
+    /**
+     * @attr ref R.styleable#SlidingUpLayout_springStiffness
+     */
+    public void setSpringStiffness(float stiffness) {
+        mSpring.setStiffness(stiffness);
+    }
+
+    /**
+     * @attr ref R.styleable#SlidingUpLayout_springDampingRatio
+     */
+    public void setSpringDampingRatio(float dampingRatio) {
+        mSpring.setDampingRatio(dampingRatio);
+    }
+
+    /**
+     * In overlay mode the upper view keeps the whole height of the layout and the panel
+     * is drawn over it, instead of the upper view sharing the height with the panel.
+     *
+     * @attr ref R.styleable#SlidingUpLayout_overlay
+     */
+    public void setOverlay(boolean overlay) {
+        if (mOverlay != overlay) {
+            mOverlay = overlay;
+            if (!overlay && mUpperView != null) mUpperView.setTranslationY(0);
+            requestLayout();
+        }
+    }
+
+    /**
+     * @attr ref R.styleable#SlidingUpLayout_overlay
+     */
+    public boolean isOverlay() {
+        return mOverlay;
+    }
+
+    /**
+     * Set how far the upper view follows the panel in overlay mode, 0 keeps it still and
+     * 1 moves it along with the dragger. The upper view is only translated, never laid out.
+     *
+     * @attr ref R.styleable#SlidingUpLayout_parallaxFactor
+     */
+    public void setParallaxFactor(float factor) {
+        if (mParallaxFactor != factor) {
+            mParallaxFactor = factor;
+            if (mUpperView != null && mSlideView != null) {
+                if (factor == 0) {
+                    mUpperView.setTranslationY(0);
+                } else {
+                    syncGeometry(-1);
+                    applyParallax(getDraggerTop(-1));
+                }
+            }
+        }
+    }
+
+    /**
+     * @attr ref R.styleable#SlidingUpLayout_parallaxFactor
+     */
+    public float getParallaxFactor() {
+        return mParallaxFactor;
+    }
+
+    /**
+     * In reveal mode the slide view is measured once at its largest height, the panel only
+     * moves it and clips what is below the layout, so dragging does not lay out its content.
+     * The drag mode is then ignored, the panel is always offset.
+     *
+     * @attr ref R.styleable#SlidingUpLayout_reveal
+     */
+    public void setRevealEnabled(boolean reveal) {
+        if (mReveal != reveal) {
+            mReveal = reveal;
+            mRevealExpanded = false;
+            requestLayout();
+            invalidate();
+        }
+    }
+
+    /**
+     * @attr ref R.styleable#SlidingUpLayout_reveal
+     */
+    public boolean isRevealEnabled() {
+        return mReveal;
+    }
+
+    /**
+     * In reveal mode, give the slide view the height it shows once the panel settles,
+     * for content that depends on its actual size. This costs a layout pass when a
+     * gesture starts and another one when it ends.
+     *
+     * @attr ref R.styleable#SlidingUpLayout_commitRevealHeight
+     */
+    public void setCommitRevealHeight(boolean commit) {
+        if (mCommitRevealHeight != commit) {
+            mCommitRevealHeight = commit;
+            mRevealExpanded = false;
+            if (mReveal) requestLayout();
+        }
+    }
+
+    /**
+     * @attr ref R.styleable#SlidingUpLayout_commitRevealHeight
+     */
+    public boolean isCommitRevealHeight() {
+        return mCommitRevealHeight;
+    }
+
+    /**
+     * Tell the layout that the slide view hides what is behind it, even if the view itself
+     * does not report it through {@link View#isOpaque()}. The upper view is then only drawn
+     * above the slide view.
+     *
+     * @attr ref R.styleable#SlidingUpLayout_panelOpaque
+     */
+    public void setPanelOpaque(boolean opaque) {
+        if (mPanelOpaque != opaque) {
+            mPanelOpaque = opaque;
+            invalidate();
+        }
+    }
+
+    /**
+     * @attr ref R.styleable#SlidingUpLayout_panelOpaque
+     */
+    public boolean isPanelOpaque() {
+        return mPanelOpaque;
+    }
+
+    /**
+     * Register a listener for the movements and state changes of the slide view.
+     */
+    public void addPanelSlideListener(PanelSlideListener listener) {
+        final int count = mSlideListeners.length;
+        for (int i = 0; i < count; i++) {
+            if (mSlideListeners[i] == listener) return;
+        }
+
+        final PanelSlideListener[] listeners = Arrays.copyOf(mSlideListeners, count + 1);
+        listeners[count] = listener;
+        mSlideListeners = listeners;
+
+        // Let the new listener know where the panel is.
+        mDispatchedOffset = Integer.MIN_VALUE;
+        scheduleSlideDispatch();
+    }
+
+    public void removePanelSlideListener(PanelSlideListener listener) {
+        final int count = mSlideListeners.length;
+        for (int i = 0; i < count; i++) {
+            if (mSlideListeners[i] == listener) {
+                final PanelSlideListener[] listeners = count == 1
+                        ? EMPTY_SLIDE_LISTENERS : new PanelSlideListener[count - 1];
+                System.arraycopy(mSlideListeners, 0, listeners, 0, i);
+                System.arraycopy(mSlideListeners, i + 1, listeners, i, count - i - 1);
+                mSlideListeners = listeners;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return one of {@link #STATE_IDLE}, {@link #STATE_DRAGGING} and {@link #STATE_SETTLING}
+     */
+    public int getPanelState() {
+        return mPanelState;
+    }
+
+    private void onSlideTopChanged(int top) {
+        mSlideTop = top;
+        scheduleSlideDispatch();
+    }
+
+    private void scheduleSlideDispatch() {
+        if (mSlideListeners.length == 0 || mSlideDispatchScheduled) return;
+
+        mSlideDispatchScheduled = true;
+        postFrameCallback(mSlideDispatchCallback);
+    }
+
+    /**
+     * Dispatch a pending offset right away, for the code that moves the panel from a frame callback.
+     */
+    private void flushSlide() {
+        if (!mSlideDispatchScheduled) return;
+
+        removeFrameCallback(mSlideDispatchCallback);
+        mSlideDispatchScheduled = false;
+        dispatchSlide();
+    }
+
+    private void dispatchSlide() {
+        final PanelSlideListener[] listeners = mSlideListeners;
+        if (listeners.length == 0 || !mSlideLaidOut) return;
+
+        syncGeometry(-1);
+        final int range = mGeometry.getMaxTop() - mGeometry.getMinTop();
+        final int offset = mGeometry.getMaxTop() - mSlideTop;
+        final float fraction = range > 0 ? (float) offset / range : 0;
+        if (offset == mDispatchedOffset && fraction == mDispatchedFraction) return;
+
+        mDispatchedOffset = offset;
+        mDispatchedFraction = fraction;
+        for (PanelSlideListener listener : listeners) {
+            listener.onSlide(fraction, offset);
+        }
+    }
+
+    private void setPanelState(int state) {
+        if (mPanelState == state) return;
+
+        // Listeners see the last offset of a state before the next state.
+        flushSlide();
+        mPanelState = state;
+
+        final PanelSlideListener[] listeners = mSlideListeners;
+        for (PanelSlideListener listener : listeners) {
+            listener.onStateChanged(state);
+        }
+    }
+
+    /**
+     * Enter {@link #STATE_SETTLING} if the panel has been left moving, {@link #STATE_IDLE} otherwise.
+     */
+    private void updateSettleState() {
+        setPanelState(!mScroller.isFinished() || mSpringRunning ? STATE_SETTLING : STATE_IDLE);
+    }
+
+    /**
+     * Collect a {@link PanelMetrics} for every gesture on the dragger and report it
+     * once the panel has settled. Pass {@code null} to stop collecting.
+     */
+    public void setOnGestureMetricsListener(OnGestureMetricsListener listener) {
+        mMetricsListener = listener;
+        if (listener != null && mMetrics == null) mMetrics = new PanelMetrics();
+        if (listener == null && mLayoutBudget == null) mCollectingMetrics = false;
+    }
+
+    /**
+     * Check every gesture, nested scroll and {@link #bindState(int, int, int)} against
+     * {@code budget} once the panel has settled and log the ones that exceed it,
+     * {@code null} to stop checking.
+     */
+    public void setLayoutBudget(LayoutBudget budget) {
+        mLayoutBudget = budget;
+        if (budget != null && mMetrics == null) mMetrics = new PanelMetrics();
+        if (budget == null && mMetricsListener == null) mCollectingMetrics = false;
+    }
+
+    public LayoutBudget getLayoutBudget() {
+        return mLayoutBudget;
+    }
+
+    /**
+     * Record every {@link MotionEvent} reaching this layout into {@code recorder},
+     * {@code null} to stop recording.
+     */
+    public void setGestureRecorder(GestureRecorder recorder) {
+        mGestureRecorder = recorder;
+    }
+
+    public GestureRecorder getGestureRecorder() {
+        return mGestureRecorder;
+    }
+
+    private void startGestureMetrics() {
+        if (mMetricsListener == null && mLayoutBudget == null) return;
+
+        mMetrics.reset(mFrameIntervalNanos);
+        mCollectingMetrics = true;
+        mReleaseTimeNanos = 0;
+    }
+
+    private void releaseGestureMetrics() {
+        if (!mCollectingMetrics) return;
+
+        mReleaseTimeNanos = System.nanoTime();
+        finishGestureMetricsIfSettled();
+    }
+
+    /**
+     * Report the metrics of the gesture once the dragger is released, the fling and the
+     * bounce are over and the final layout has run.
+     */
+    private void finishGestureMetricsIfSettled() {
+        if (!mCollectingMetrics || mReleaseTimeNanos == 0) return;
+        if (!mScroller.isFinished() || mBouncing || mSpringRunning || mLayoutPending) return;
+
+        mCollectingMetrics = false;
+        mMetrics.settleTimeNanos = System.nanoTime() - mReleaseTimeNanos;
+        if (mMetricsListener != null) mMetricsListener.onGestureMetrics(mMetrics);
+        if (mLayoutBudget != null) mLayoutBudget.check(mMetrics);
+    }
+
+    private static void beginTraceSection(String sectionName) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) Trace.beginSection(sectionName);
+    }
+
+    private static void endTraceSection() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) Trace.endSection();
+    }
+
+    public void setGravity(int gravity) {
+        if (mGravity != gravity) {
+            if ((gravity & Gravity.RELATIVE_HORIZONTAL_GRAVITY_MASK) == 0) {
+                gravity |= Gravity.START;
+            }
+
+            if ((gravity & Gravity.VERTICAL_GRAVITY_MASK) == 0) {
+                gravity |= Gravity.TOP;
+            }
+
+            mGravity = gravity;
+            requestLayout();
+        }
+    }
+
+    @Override
+    public LayoutParams generateLayoutParams(AttributeSet attrs) {
+        return new LayoutParams(getContext(), attrs);
+    }
+
+    /**
+     * Return a set of layout parameters with a width of
+     * {@link android.view.ViewGroup.LayoutParams#MATCH_PARENT}
+     * and a height of {@link android.view.ViewGroup.LayoutParams#WRAP_CONTENT}.
+     */
+    @Override
+    protected ViewGroup.LayoutParams generateDefaultLayoutParams() {
+        return new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.WRAP_CONTENT);
+    }
+
+    @Override
+    protected LayoutParams generateLayoutParams(ViewGroup.LayoutParams p) {
+        return new LayoutParams(p);
+    }
+
+    @Override
+    protected boolean checkLayoutParams(ViewGroup.LayoutParams p) {
+        return p instanceof LayoutParams;
+    }
+
+    @Override
+    public void onInitializeAccessibilityEvent(AccessibilityEvent event) {
+        super.onInitializeAccessibilityEvent(event);
+        event.setClassName(SlidingUpLayout.class.getName());
+    }
+
+    @Override
+    public void onInitializeAccessibilityNodeInfo(AccessibilityNodeInfo info) {
+        super.onInitializeAccessibilityNodeInfo(info);
+        info.setClassName(SlidingUpLayout.class.getName());
+    }
+
+    /**
+     * Interface definition for callbacks to be invoked when the slide view moves,
+     * see {@link #addPanelSlideListener(PanelSlideListener)}.
+     */
+    public interface PanelSlideListener {
+        /**
+         * Called at most once per frame, once the slide view has moved.
+         *
+         * @param fraction 0 when the slide view is collapsed to its smallest height, 1 when
+         *                 it is expanded to its largest one
+         * @param offsetPx how far the dragger is above its collapsed position
+         */
+        void onSlide(float fraction, int offsetPx);
+
+        /**
+         * @param state one of {@link #STATE_IDLE}, {@link #STATE_DRAGGING} and {@link #STATE_SETTLING}
+         */
+        void onStateChanged(int state);
+    }
+
+    /**
+     * Interface definition for a callback to be invoked when a view inflated by
+     * {@link #inflateAsync(int, int)} has been attached.
+     */
+    public interface OnContentAttachedListener {
+        /**
+         * @param content the attached view
+         * @param slide {@code true} for the slide view, {@code false} for the upper view
+         */
+        void onContentAttached(View content, boolean slide);
+    }
+
+    /**
+     * Interface definition for a callback to be invoked when a gesture on the
+     * dragger has settled.
+     *
+     * @see #setOnGestureMetricsListener(OnGestureMetricsListener)
+     */
+    public interface OnGestureMetricsListener {
+        /**
+         * @param metrics cost of the gesture, only valid during this call
+         */
+        void onGestureMetrics(PanelMetrics metrics);
+    }
+
+    /**
+     * Panel state kept across configuration changes and process death.
+     */
+    static class SavedState extends BaseSavedState {
+        /**
+         * Height of the slide view, or -1 if there is none.
+         */
+        int slideHeight;
+
+        /**
+         * Snap state the panel rests in, see {@link PanelSnapTable#getStateForTop(int)},
+         * or {@link PanelSnapTable#NONE}.
+         */
+        int snapState;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            slideHeight = in.readInt();
+            snapState = in.readInt();
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeInt(slideHeight);
+            out.writeInt(snapState);
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+    }
+
+    /**
+     * Per-child layout information associated with View SlidingUpLayout.
+     *
+     * @attr ref R.styleable#SlidingUpLayout_Layout_layout_weight
+     * @attr ref R.styleable#SlidingUpLayout_Layout_layout_gravity
+     * @attr ref R.styleable#SlidingUpLayout_Layout_layout_layerOnSlide
+     */
+    public static class LayoutParams extends MarginLayoutParams {
+        /**
+         * Indicates how much of the extra space n the SlidingUpLayout will be
+         * allocated to the view associated with these LayoutParams. Specify
+         * 0 if the view should not be stretched. Otherwise the extra pixels
+         * will be pro-rated among all views whose weight is greater than 0.
+         */
+        @ViewDebug.ExportedProperty(category = "layout")
+        public float weight;
+
+        /**
+         * Gravity for the view associated with these LayoutParams.
+         */
+        @ViewDebug.ExportedProperty(category = "layout", mapping= {
+                @ViewDebug.IntToString(from = -1, to = "NONE"),
+                @ViewDebug.IntToString(from = Gravity.NO_GRAVITY, to = "NONE"),
+                @ViewDebug.IntToString(from = Gravity.LEFT, to = "LEFT"),
+                @ViewDebug.IntToString(from = Gravity.RIGHT, to = "RIGHT"),
+                @ViewDebug.IntToString(from = Gravity.CENTER_HORIZONTAL, to = "CENTER_HORIZONTAL")
+        })
+        public int gravity = -1;
+
+        /**
+         * Whether the view is rendered into a hardware layer while the panel moves it
+         * without changing its size.
+         */
+        @ViewDebug.ExportedProperty(category = "layout")
+        public boolean layerOnSlide = true;
+
+        int savedLayerType;
+        boolean layerPromoted;
+
+        /**
+         * Range of heights the view can be dragged to when it is a stacked panel,
+         * see {@link SlidingUpLayout#setStackedPanelBounds(int, int, int)}.
+         */
+        @ViewDebug.ExportedProperty(category = "layout")
+        public int panelMinHeight;
+
+        @ViewDebug.ExportedProperty(category = "layout")
+        public int panelMaxHeight = -1;
+
+        /**
+         * Index of the view among the stacked panels, or -1.
+         */
+        int stackIndex = -1;
+
+        public LayoutParams(Context c, AttributeSet attrs) {
+            super(c, attrs);
+            TypedArray a = c.obtainStyledAttributes(attrs, R.styleable.SlidingUpLayout_Layout);
+
+            weight = a.getFloat(R.styleable.SlidingUpLayout_Layout_layout_weight, 0);
+            gravity = a.getInt(R.styleable.SlidingUpLayout_Layout_layout_gravity, -1);
+            layerOnSlide = a.getBoolean(R.styleable.SlidingUpLayout_Layout_layout_layerOnSlide, true);
+            panelMinHeight = a.getDimensionPixelSize(R.styleable.SlidingUpLayout_Layout_layout_panelMinHeight, 0);
+            panelMaxHeight = a.getDimensionPixelSize(R.styleable.SlidingUpLayout_Layout_layout_panelMaxHeight, -1);
+
+            a.recycle();
+        }
+
+        public LayoutParams(int width, int height) {
+            super(width, height);
+            weight = 0;
+        }
+
+        /**
+         * Creates a new set of layout parameters with the specified width, height
+         * and weight.
+         *
+         * @param width the width, either {@link #MATCH_PARENT},
+         *              {@link #WRAP_CONTENT} or a fixed size in pixels
+         * @param height the height, either {@link #MATCH_PARENT},
+         *              {@link #WRAP_CONTENT} or a fixed size in pixels
+         * @param weight the weight
+         */
+        public LayoutParams(int width, int height, float weight) {
+            super(width, height);
+            this.weight = weight;
+        }
+
+        public LayoutParams(ViewGroup.LayoutParams p) {
+            super(p);
+        }
+
+        public LayoutParams(ViewGroup.MarginLayoutParams source) {
+            super(source);
+        }
+
+        /**
+         * Copy constructor. Clones the width, height, margin values, weight,
+         * and gravity of the source.
+         *
+         * @param source The layout params to copy from.
+         */
+        public LayoutParams(LayoutParams source) {
+            super(source);
+
+            this.weight = source.weight;
+            this.gravity = source.gravity;
+            this.layerOnSlide = source.layerOnSlide;
+            this.panelMinHeight = source.panelMinHeight;
+            this.panelMaxHeight = source.panelMaxHeight;
+        }
+
+        public String debug(String output) {
+            return output + "SlidingUpLayout.LayoutParams={width=" + sizeToString(width) +
+                    ", height=" + sizeToString(height) + ", weight=" + weight + "}";
+        }
+
+        /**
+         * Converts the specified size to a readable String.
+         *
+         * @param size the size to convert
+         * @return a String instance representing the supplied size
+         *
+         * @hide
+         */
+        protected static String sizeToString(int size) {
+            if (size == WRAP_CONTENT) {
+                return "wrap-content";
+            }
+            if (size == MATCH_PARENT) {
+                return "match-parent";
+            }
+            return String.valueOf(size);
+        }
+    }
+}
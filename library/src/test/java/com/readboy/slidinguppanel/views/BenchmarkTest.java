@@ -0,0 +1,30 @@
+package com.readboy.slidinguppanel.views;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Runs the JMH benchmarks of the unit tests in the Robolectric runtime of this test, only when the
+ * {@code jmh} system property holds the JMH arguments, see the library build file.
+ * The runtime only exists in this JVM, so the benchmarks can not fork.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21, shadows = ShadowSharedAccessibilityManager.class)
+public class BenchmarkTest {
+
+    @Test
+    public void runBenchmarks() throws Exception {
+        final String args = System.getProperty("jmh");
+        Assume.assumeNotNull(args);
+
+        final CommandLineOptions options = new CommandLineOptions(
+                args.trim().isEmpty() ? new String[0] : args.trim().split(" +"));
+        new Runner(new OptionsBuilder().parent(options).forks(0).build()).run();
+    }
+}
@@ -0,0 +1,44 @@
+package com.readboy.slidinguppanel.views;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.view.View;
+
+/**
+ * Child of a {@link SlidingUpLayout} under test that counts the passes it runs.
+ * A measure answered from the measure cache of {@link View} does not reach {@link #onMeasure(int, int)}.
+ */
+class CountingView extends View {
+
+    int measureCount;
+    int layoutCount;
+    int drawCount;
+
+    CountingView(Context context) {
+        super(context);
+    }
+
+    void resetCounts() {
+        measureCount = 0;
+        layoutCount = 0;
+        drawCount = 0;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        measureCount++;
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        layoutCount++;
+        super.onLayout(changed, left, top, right, bottom);
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        drawCount++;
+        super.draw(canvas);
+    }
+}
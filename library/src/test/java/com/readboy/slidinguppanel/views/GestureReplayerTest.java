@@ -0,0 +1,81 @@
+package com.readboy.slidinguppanel.views;
+
+import android.view.MotionEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class GestureReplayerTest {
+
+    /**
+     * Frames the bounce of a release runs for, both of its phases.
+     */
+    private static final long BOUNCE_FRAMES = 2 * SlidingUpLayout.DEFAULT_ANIMATOR_DURATION * 1000000L
+            / SlidingUpLayout.DEFAULT_FRAME_INTERVAL_NANOS;
+
+    private byte[] mRecording;
+
+    @Before
+    public void setUp() {
+        // Drag the slide view up by 300 pixels in 600 ms, hold still and release.
+        final GestureRecorder recorder = new GestureRecorder();
+        record(recorder, MotionEvent.ACTION_DOWN, 0, 750);
+        for (int i = 1; i <= 60; i++) {
+            record(recorder, MotionEvent.ACTION_MOVE, 10 * i, 750 - 5 * i);
+        }
+        record(recorder, MotionEvent.ACTION_MOVE, 800, 450);
+        record(recorder, MotionEvent.ACTION_UP, 810, 450);
+        mRecording = recorder.toByteArray();
+    }
+
+    private static void record(GestureRecorder recorder, int action, long time, float y) {
+        final MotionEvent ev = MotionEvent.obtain(0, time, action, PanelHarness.WIDTH / 2, y, 0);
+        recorder.record(ev);
+        ev.recycle();
+    }
+
+    @Test
+    public void replayIsDeterministic() {
+        final PanelHarness first = new PanelHarness(RuntimeEnvironment.application);
+        final PanelHarness second = new PanelHarness(RuntimeEnvironment.application);
+
+        final int frames = new GestureReplayer(mRecording).replay(first.layout);
+
+        assertEquals(frames, new GestureReplayer(mRecording).replay(second.layout));
+        assertEquals(first.slideView.getHeight(), second.slideView.getHeight());
+    }
+
+    @Test
+    public void releaseBouncesOnTheVirtualClock() {
+        final PanelHarness harness = new PanelHarness(RuntimeEnvironment.application);
+        final GestureReplayer replayer = new GestureReplayer(mRecording);
+
+        final int frames = replayer.replay(harness.layout);
+
+        // The events take 810 ms, the bounce runs after them.
+        assertTrue(frames >= 810 * 1000000L / replayer.getFrameIntervalNanos() + BOUNCE_FRAMES);
+        assertEquals(0f, harness.slideView.getTranslationY(), 0f);
+        assertEquals(SlidingUpLayout.STATE_IDLE, harness.layout.getPanelState());
+    }
+
+    @Test
+    public void snapReleaseSettlesWithTheScroller() {
+        final PanelHarness harness = new PanelHarness(RuntimeEnvironment.application);
+        harness.layout.setSnapToBounds(true);
+        harness.settle();
+
+        new GestureReplayer(mRecording).replay(harness.layout);
+
+        assertEquals(PanelHarness.MAX_HEIGHT, harness.slideView.getHeight());
+        assertEquals(SlidingUpLayout.STATE_IDLE, harness.layout.getPanelState());
+    }
+}
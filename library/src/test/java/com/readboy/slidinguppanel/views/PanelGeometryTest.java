@@ -0,0 +1,84 @@
+package com.readboy.slidinguppanel.views;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class PanelGeometryTest {
+
+    private PanelGeometry mGeometry;
+
+    @Before
+    public void setUp() {
+        mGeometry = new PanelGeometry();
+        // Slide view between 100 and 600 pixels high above y=1000, 40 pixels of dragger.
+        mGeometry.setBounds(1000, 100, 600, 40);
+    }
+
+    @Test
+    public void topsFollowTheHeightBounds() {
+        assertEquals(360, mGeometry.getMinTop());
+        assertEquals(860, mGeometry.getMaxTop());
+    }
+
+    @Test
+    public void minTopIsZeroWithoutMaxHeight() {
+        mGeometry.setBounds(1000, 100, -1, 40);
+        assertEquals(0, mGeometry.getMinTop());
+    }
+
+    @Test
+    public void minTopIsNeverNegative() {
+        mGeometry.setBounds(500, 100, 600, 40);
+        assertEquals(0, mGeometry.getMinTop());
+    }
+
+    @Test
+    public void clampTopKeepsTheDraggerInRange() {
+        assertEquals(360, mGeometry.clampTop(-50));
+        assertEquals(360, mGeometry.clampTop(360));
+        assertEquals(500, mGeometry.clampTop(500));
+        assertEquals(860, mGeometry.clampTop(2000));
+    }
+
+    @Test
+    public void heightAndTopAreInverse() {
+        for (int height = 100; height <= 600; height += 50) {
+            final int top = mGeometry.getTopForHeight(height);
+            assertEquals(height, mGeometry.getHeightForTop(top));
+        }
+    }
+
+    @Test
+    public void weightSharesAddUpToTheDelta() {
+        mGeometry.startWeightDistribution(101, 3f);
+        final int first = mGeometry.nextWeightShare(1f);
+        final int second = mGeometry.nextWeightShare(1f);
+        final int third = mGeometry.nextWeightShare(1f);
+
+        assertEquals(33, first);
+        assertEquals(101, first + second + third);
+    }
+
+    @Test
+    public void negativeDeltaShrinksTheWeightedChildren() {
+        mGeometry.startWeightDistribution(-90, 2f);
+        assertEquals(-30, mGeometry.nextWeightShare(2f / 3));
+        assertEquals(-60, mGeometry.nextWeightShare(4f / 3));
+    }
+
+    @Test
+    public void majorAxisStartFollowsTheVerticalGravity() {
+        assertEquals(10, PanelGeometry.getMajorAxisStart(PanelGeometry.GRAVITY_TOP, 10, 500, 300));
+        assertEquals(210, PanelGeometry.getMajorAxisStart(PanelGeometry.GRAVITY_BOTTOM, 10, 500, 300));
+        assertEquals(110, PanelGeometry.getMajorAxisStart(PanelGeometry.GRAVITY_CENTER_VERTICAL, 10, 500, 300));
+    }
+
+    @Test
+    public void minorAxisStartFollowsTheHorizontalGravity() {
+        assertEquals(15, PanelGeometry.getMinorAxisStart(PanelGeometry.GRAVITY_LEFT, 10, 400, 410, 100, 5, 7));
+        assertEquals(303, PanelGeometry.getMinorAxisStart(PanelGeometry.GRAVITY_RIGHT, 10, 400, 410, 100, 5, 7));
+        assertEquals(158, PanelGeometry.getMinorAxisStart(PanelGeometry.GRAVITY_CENTER_HORIZONTAL, 10, 400, 410, 100, 5, 7));
+    }
+}
@@ -0,0 +1,162 @@
+package com.readboy.slidinguppanel.views;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Drives a {@link SlidingUpLayout} with an upper and a slide {@link CountingView} on the virtual
+ * clock of the layout. Each frame runs the frame callbacks, then the measure and layout passes
+ * the view root would run and a draw, so that a test sees every pass a gesture costs.
+ */
+class PanelHarness {
+
+    static final int WIDTH = 480;
+    static final int HEIGHT = 800;
+    static final int SLIDE_HEIGHT = 200;
+    static final int MIN_HEIGHT = 100;
+    static final int MAX_HEIGHT = 600;
+
+    /**
+     * Horizontal position of every touch, the vertical one is passed in.
+     */
+    private static final float TOUCH_X = WIDTH / 2;
+    private static final int MAX_SETTLE_FRAMES = 600;
+
+    /**
+     * Size of the pool of {@link VelocityTracker#obtain()}.
+     */
+    private static final int VELOCITY_TRACKER_POOL_SIZE = 2;
+
+    final SlidingUpLayout layout;
+    final CountingView upperView;
+    final CountingView slideView;
+
+    private final Canvas mCanvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+    private long mFrameTimeNanos = 1000000000L;
+    private long mDownTime;
+    private float mLastY;
+    private int mFrameCount;
+
+    /**
+     * Budget the reported gestures are checked against, see {@link #budgetMet}.
+     */
+    LayoutBudget budget;
+
+    /**
+     * What the layout reported for the last gesture, it reuses its metrics.
+     */
+    int reportCount;
+    boolean budgetMet;
+    String metrics;
+
+    PanelHarness(Context context) {
+        // A recycled velocity tracker of Robolectric still holds the samples of an earlier
+        // test, take the pooled ones out so that the layout obtains new ones.
+        for (int i = 0; i < VELOCITY_TRACKER_POOL_SIZE; i++) {
+            VelocityTracker.obtain();
+        }
+
+        layout = new SlidingUpLayout(context);
+        upperView = new CountingView(context);
+        slideView = new CountingView(context);
+        layout.addView(upperView, new SlidingUpLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 0, 1f));
+        layout.addView(slideView, new SlidingUpLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, SLIDE_HEIGHT));
+        layout.setMinHeight(MIN_HEIGHT);
+        layout.setMaxHeight(MAX_HEIGHT);
+        layout.setOnGestureMetricsListener(new SlidingUpLayout.OnGestureMetricsListener() {
+            @Override
+            public void onGestureMetrics(PanelMetrics metrics) {
+                reportCount++;
+                budgetMet = budget == null || budget.isMet(metrics);
+                PanelHarness.this.metrics = metrics.toString();
+            }
+        });
+        layout.setVirtualFrames(true);
+
+        traverse();
+        resetCounts();
+    }
+
+    void resetCounts() {
+        upperView.resetCounts();
+        slideView.resetCounts();
+        reportCount = 0;
+        mFrameCount = 0;
+    }
+
+    /**
+     * @return number of frames run since the last {@link #resetCounts()}
+     */
+    int getFrameCount() {
+        return mFrameCount;
+    }
+
+    /**
+     * Touch the layout at {@code fromY}, move to {@code toY} in {@code moves} evenly spaced
+     * events over {@code durationMillis}, then hold still for {@code holdMillis}. The
+     * gesture is left down, see {@link #release()}.
+     */
+    void drag(float fromY, float toY, int moves, long durationMillis, long holdMillis) {
+        final long start = getTimeMillis();
+        mDownTime = start;
+        dispatch(MotionEvent.ACTION_DOWN, fromY, start);
+        for (int i = 1; i <= moves; i++) {
+            dispatch(MotionEvent.ACTION_MOVE, fromY + (toY - fromY) * i / moves, start + durationMillis * i / moves);
+        }
+        if (holdMillis > 0) dispatch(MotionEvent.ACTION_MOVE, toY, start + durationMillis + holdMillis);
+        mLastY = toY;
+    }
+
+    /**
+     * Lift the finger where the last drag ended and run frames until the panel has settled.
+     */
+    void release() {
+        dispatch(MotionEvent.ACTION_UP, mLastY, getTimeMillis());
+        settle();
+    }
+
+    /**
+     * Run frames until the layout has nothing left to do.
+     */
+    void settle() {
+        for (int i = 0; i < MAX_SETTLE_FRAMES && layout.hasPendingFrame(); i++) {
+            frame();
+        }
+    }
+
+    private void dispatch(int action, float y, long timeMillis) {
+        while (mFrameTimeNanos <= timeMillis * 1000000L) {
+            frame();
+        }
+
+        final MotionEvent ev = MotionEvent.obtain(mDownTime, timeMillis, action, TOUCH_X, y, 0);
+        layout.dispatchTouchEvent(ev);
+        ev.recycle();
+    }
+
+    private long getTimeMillis() {
+        return mFrameTimeNanos / 1000000L;
+    }
+
+    private void frame() {
+        layout.doVirtualFrame(mFrameTimeNanos);
+        traverse();
+        // View.draw() of Robolectric only draws the background, draw the children the way it would.
+        layout.dispatchDraw(mCanvas);
+        mFrameTimeNanos += SlidingUpLayout.DEFAULT_FRAME_INTERVAL_NANOS;
+        mFrameCount++;
+    }
+
+    private void traverse() {
+        if (layout.isLayoutRequested()) {
+            layout.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+            layout.layout(0, 0, WIDTH, HEIGHT);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.readboy.slidinguppanel.views;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PanelSnapTableTest {
+
+    private PanelSnapTable mTable;
+
+    @Before
+    public void setUp() {
+        mTable = new PanelSnapTable();
+        // Collapsed top 860, expanded top 360.
+        mTable.setSnapToBounds(true);
+        mTable.setAnchorFraction(0.5f);
+        mTable.setSnapHeights(new int[] {600, 300, 100});
+        mTable.resolve(1000, 100, 600, 40);
+    }
+
+    @Test
+    public void tableIsSortedWithoutDuplicates() {
+        // 600 and 100 are the bounds, the anchor is at 610, 300 pixels is at 660.
+        assertEquals(4, mTable.getCount());
+        assertEquals(360, mTable.getTop(0));
+        assertEquals(610, mTable.getTop(1));
+        assertEquals(660, mTable.getTop(2));
+        assertEquals(860, mTable.getTop(3));
+    }
+
+    @Test
+    public void heightsOutsideOfTheBoundsAreClamped() {
+        mTable.setSnapHeights(new int[] {2000, 10});
+        mTable.resolve(1000, 100, 600, 40);
+
+        assertEquals(360, mTable.getTop(0));
+        assertEquals(860, mTable.getTop(mTable.getCount() - 1));
+    }
+
+    @Test
+    public void slowReleaseSettlesAtTheNearestState() {
+        assertEquals(610, mTable.findSnapTop(630, 0));
+        assertEquals(660, mTable.findSnapTop(640, 0));
+        assertEquals(360, mTable.findSnapTop(100, 0));
+        assertEquals(860, mTable.findSnapTop(900, 0));
+        assertEquals(660, mTable.findSnapTop(660, 0));
+    }
+
+    @Test
+    public void flingSettlesAtTheNextStateInItsDirection() {
+        assertEquals(610, mTable.findSnapTop(650, -1000));
+        assertEquals(660, mTable.findSnapTop(650, 1000));
+        assertEquals(610, mTable.findSnapTop(660, -1000));
+        assertEquals(860, mTable.findSnapTop(660, 1000));
+    }
+
+    @Test
+    public void flingPastTheLastStateStaysAtIt() {
+        assertEquals(360, mTable.findSnapTop(360, -1000));
+        assertEquals(860, mTable.findSnapTop(860, 1000));
+    }
+
+    @Test
+    public void anchorHeightReplacesTheFraction() {
+        mTable.setSnapHeights(null);
+        mTable.setAnchorHeight(400);
+        mTable.resolve(1000, 100, 600, 40);
+
+        assertEquals(-1f, mTable.getAnchorFraction(), 0f);
+        assertEquals(3, mTable.getCount());
+        assertEquals(560, mTable.getTop(1));
+    }
+
+    @Test
+    public void boundsAreOnlyInTheTableWhenSnappingToThem() {
+        mTable.setSnapToBounds(false);
+        mTable.setSnapHeights(null);
+        mTable.resolve(1000, 100, 600, 40);
+
+        assertEquals(1, mTable.getCount());
+        assertEquals(610, mTable.findSnapTop(860, 1000));
+        assertEquals(610, mTable.findSnapTop(360, -1000));
+    }
+
+    @Test
+    public void unchangedInputsKeepTheTable() {
+        assertFalse(mTable.resolve(1000, 100, 600, 40));
+    }
+
+    @Test
+    public void changedBoundsRebuildTheTable() {
+        assertTrue(mTable.resolve(1100, 100, 600, 40));
+        assertEquals(960, mTable.getTop(mTable.getCount() - 1));
+
+        assertTrue(mTable.resolve(1100, 100, 500, 40));
+        assertEquals(560, mTable.getTop(0));
+    }
+
+    @Test
+    public void changedStatesRebuildTheTable() {
+        mTable.setSnapHeights(new int[] {200});
+        assertTrue(mTable.resolve(1000, 100, 600, 40));
+        assertEquals(4, mTable.getCount());
+        assertEquals(760, mTable.getTop(2));
+    }
+
+    @Test
+    public void clearedTableIsRebuiltByTheNextResolve() {
+        mTable.clear();
+        assertEquals(0, mTable.getCount());
+
+        assertTrue(mTable.resolve(1000, 100, 600, 40));
+        assertEquals(4, mTable.getCount());
+    }
+
+    @Test
+    public void statesAreFoundByTheirTop() {
+        assertEquals(PanelSnapTable.COLLAPSED, mTable.getStateForTop(860));
+        assertEquals(PanelSnapTable.EXPANDED, mTable.getStateForTop(360));
+        assertEquals(PanelSnapTable.ANCHOR, mTable.getStateForTop(610));
+        assertEquals(1, mTable.getStateForTop(660));
+        assertEquals(PanelSnapTable.NONE, mTable.getStateForTop(700));
+    }
+
+    @Test
+    public void stateKeepsItsMeaningWhenTheBoundsChange() {
+        final int state = mTable.getStateForTop(660);
+
+        // Lower max height: 300 pixels now merges with the expanded state and the table shrinks.
+        mTable.resolve(700, 100, 300, 40);
+        assertEquals(3, mTable.getCount());
+        assertEquals(360, mTable.getTopForState(state));
+        assertEquals(360, mTable.getTopForState(PanelSnapTable.EXPANDED));
+        assertEquals(560, mTable.getTopForState(PanelSnapTable.COLLAPSED));
+        assertEquals(-1, mTable.getTopForState(5));
+    }
+
+    @Test
+    public void tableIsEmptyWithoutStates() {
+        final PanelSnapTable table = new PanelSnapTable();
+        assertFalse(table.isEnabled());
+
+        table.resolve(1000, 100, 600, 40);
+        assertEquals(0, table.getCount());
+    }
+}
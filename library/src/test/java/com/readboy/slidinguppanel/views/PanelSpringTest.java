@@ -0,0 +1,101 @@
+package com.readboy.slidinguppanel.views;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PanelSpringTest {
+
+    private static final long FRAME_NANOS = 16666667L;
+
+    private PanelSpring mSpring;
+
+    @Before
+    public void setUp() {
+        mSpring = new PanelSpring();
+    }
+
+    @Test
+    public void comesToRestExactlyAtTheTarget() {
+        mSpring.start(800, 0, 200);
+
+        final int frames = settle();
+
+        assertTrue(frames < 120);
+        assertEquals(200f, mSpring.getPosition(), 0f);
+        assertEquals(0f, mSpring.getVelocity(), 0f);
+    }
+
+    @Test
+    public void criticallyDampedSpringDoesNotOvershoot() {
+        mSpring.setDampingRatio(1f);
+        mSpring.start(800, 0, 200);
+
+        while (!mSpring.step(FRAME_NANOS)) {
+            assertTrue(mSpring.getPosition() >= 200 - PanelSpring.DEFAULT_REST_THRESHOLD);
+        }
+    }
+
+    @Test
+    public void underDampedSpringOvershoots() {
+        mSpring.setDampingRatio(0.3f);
+        mSpring.start(800, 0, 200);
+
+        float lowest = Float.MAX_VALUE;
+        while (!mSpring.step(FRAME_NANOS)) {
+            lowest = Math.min(lowest, mSpring.getPosition());
+        }
+        assertTrue(lowest < 190);
+    }
+
+    @Test
+    public void keepsItsVelocityTowardTheTarget() {
+        mSpring.start(800, -3000, 200);
+        mSpring.step(FRAME_NANOS);
+
+        assertTrue(mSpring.getPosition() < 800);
+        assertTrue(mSpring.getVelocity() < 0);
+    }
+
+    @Test
+    public void longFramesAreSplitIntoTheSameSteps() {
+        final PanelSpring other = new PanelSpring();
+        mSpring.start(800, 1000, 200);
+        other.start(800, 1000, 200);
+
+        mSpring.step(32000000L);
+        other.step(16000000L);
+        other.step(16000000L);
+
+        assertEquals(mSpring.getPosition(), other.getPosition(), 0f);
+        assertEquals(mSpring.getVelocity(), other.getVelocity(), 0f);
+    }
+
+    @Test
+    public void startingAtTheTargetIsAtRest() {
+        mSpring.start(200, 0, 200);
+        assertTrue(mSpring.isAtRest());
+
+        mSpring.start(200, 2000, 200);
+        assertFalse(mSpring.isAtRest());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsZeroStiffness() {
+        mSpring.setStiffness(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeDamping() {
+        mSpring.setDampingRatio(-0.1f);
+    }
+
+    private int settle() {
+        int frames = 1;
+        while (!mSpring.step(FRAME_NANOS)) frames++;
+        return frames;
+    }
+}
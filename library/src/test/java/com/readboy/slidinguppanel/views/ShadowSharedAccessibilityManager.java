@@ -0,0 +1,27 @@
+package com.readboy.slidinguppanel.views;
+
+import android.content.Context;
+import android.view.accessibility.AccessibilityManager;
+
+import org.robolectric.annotation.HiddenApi;
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.shadows.ShadowAccessibilityManager;
+
+/**
+ * Hands out one {@link AccessibilityManager}. The shadow of Robolectric builds a new one, with a
+ * service that registers another content observer, every time a view moves, which would make
+ * the benchmarks slower the longer they run.
+ */
+@Implements(AccessibilityManager.class)
+public class ShadowSharedAccessibilityManager extends ShadowAccessibilityManager {
+
+    private static AccessibilityManager sInstance;
+
+    @HiddenApi
+    @Implementation
+    public static AccessibilityManager getInstance(Context context) throws Exception {
+        if (sInstance == null) sInstance = ShadowAccessibilityManager.getInstance(context);
+        return sInstance;
+    }
+}
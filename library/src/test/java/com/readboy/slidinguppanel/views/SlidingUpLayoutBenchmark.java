@@ -0,0 +1,123 @@
+package com.readboy.slidinguppanel.views;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.LinearLayout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure and layout passes of a {@link SlidingUpLayout} whose upper view holds weighted
+ * subtrees, run by {@link BenchmarkTest} in the Robolectric runtime.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(0)
+public class SlidingUpLayoutBenchmark {
+
+    /**
+     * Nesting depth of the subtrees in the upper and the slide view.
+     */
+    @Param({"1", "8"})
+    public int depth;
+
+    @Param({"2", "8"})
+    public int weightedChildren;
+
+    private SlidingUpLayout mLayout;
+    private final int mWidthSpec = View.MeasureSpec.makeMeasureSpec(PanelHarness.WIDTH, View.MeasureSpec.EXACTLY);
+    private int mHeight = PanelHarness.HEIGHT;
+
+    @Setup
+    public void setUp() {
+        mLayout = newPanel(RuntimeEnvironment.application, depth, weightedChildren);
+        measureAndLayout(mLayout);
+    }
+
+    /**
+     * Measure with a height that changes every time, so the weighted share of the upper view
+     * changes and both subtrees measure again, as when the panel moves in the layout drag mode.
+     */
+    @Benchmark
+    public int measureVertical() {
+        mHeight = mHeight == PanelHarness.HEIGHT ? PanelHarness.HEIGHT - 1 : PanelHarness.HEIGHT;
+        mLayout.measureVertical(mWidthSpec, View.MeasureSpec.makeMeasureSpec(mHeight, View.MeasureSpec.EXACTLY));
+        return mLayout.getMeasuredHeight();
+    }
+
+    /**
+     * Place the children of the measured layout.
+     */
+    @Benchmark
+    public int layoutVertical() {
+        mLayout.layoutVertical(0, 0, PanelHarness.WIDTH, PanelHarness.HEIGHT);
+        return mLayout.getChildAt(0).getBottom();
+    }
+
+    /**
+     * @param depth nesting depth of every subtree
+     * @param weightedChildren number of weighted subtrees in the upper view
+     * @return a panel the size of the {@link PanelHarness} one, on the virtual clock
+     */
+    static SlidingUpLayout newPanel(Context context, int depth, int weightedChildren) {
+        final LinearLayout upperView = new LinearLayout(context);
+        upperView.setOrientation(LinearLayout.VERTICAL);
+        for (int i = 0; i < weightedChildren; i++) {
+            upperView.addView(newSubtree(context, depth),
+                    new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 0, 1 + i % 3));
+        }
+
+        final SlidingUpLayout layout = new SlidingUpLayout(context);
+        layout.addView(upperView, new SlidingUpLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 0, 1f));
+        layout.addView(newSubtree(context, depth),
+                new SlidingUpLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, PanelHarness.SLIDE_HEIGHT));
+        layout.setMinHeight(PanelHarness.MIN_HEIGHT);
+        layout.setMaxHeight(PanelHarness.MAX_HEIGHT);
+        layout.setVirtualFrames(true);
+        return layout;
+    }
+
+    /**
+     * @return {@code depth} nested padded frames around a leaf view
+     */
+    private static View newSubtree(Context context, int depth) {
+        View view = new View(context);
+        for (int i = 0; i < depth; i++) {
+            final FrameLayout frame = new FrameLayout(context);
+            frame.setPadding(1, 1, 1, 1);
+            frame.addView(view, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                    ViewGroup.LayoutParams.MATCH_PARENT));
+            view = frame;
+        }
+        return view;
+    }
+
+    /**
+     * Run the measure and layout passes the view root would run for a requested layout.
+     */
+    static void measureAndLayout(SlidingUpLayout layout) {
+        if (!layout.isLayoutRequested()) return;
+
+        layout.measure(View.MeasureSpec.makeMeasureSpec(PanelHarness.WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(PanelHarness.HEIGHT, View.MeasureSpec.EXACTLY));
+        layout.layout(0, 0, PanelHarness.WIDTH, PanelHarness.HEIGHT);
+    }
+}
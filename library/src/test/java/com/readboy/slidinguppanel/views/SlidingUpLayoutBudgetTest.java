@@ -0,0 +1,159 @@
+package com.readboy.slidinguppanel.views;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Declared layout budgets of {@link SlidingUpLayout}, checked on synthetic gestures.
+ * A measure pass measures two children, the upper and the slide view, the dragger keeps its size.
+ * A frame draws all three of them.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class SlidingUpLayoutBudgetTest {
+
+    private static final int CHILDREN = 2;
+    private static final int DRAWN_CHILDREN = 3;
+
+    /**
+     * Frames 300 move events at 250 Hz are coalesced into, at 60 Hz.
+     */
+    private static final int DRAG_FRAMES = 75;
+
+    private PanelHarness mHarness;
+
+    @Before
+    public void setUp() {
+        mHarness = new PanelHarness(RuntimeEnvironment.application);
+    }
+
+    @Test
+    public void offsetDragIsCommittedWithOneLayoutPass() {
+        mHarness.layout.setDragMode(SlidingUpLayout.DRAG_MODE_OFFSET);
+        mHarness.budget = new LayoutBudget(1, 1, CHILDREN);
+        final int top = mHarness.slideView.getTop();
+
+        mHarness.drag(750, 450, 300, 1200, 200);
+
+        // The drag only offsets the children.
+        assertTrue(mHarness.slideView.getTop() < top);
+        assertFalse(mHarness.layout.isLayoutRequested());
+        assertEquals(0, mHarness.slideView.measureCount);
+        assertEquals(0, mHarness.slideView.layoutCount);
+        assertEquals(0, mHarness.upperView.measureCount);
+
+        mHarness.release();
+
+        assertSettledWithinBudget();
+        assertEquals(1, mHarness.slideView.measureCount);
+        assertEquals(1, mHarness.slideView.layoutCount);
+        assertEquals(1, mHarness.upperView.measureCount);
+    }
+
+    @Test
+    public void layoutDragRunsOneLayoutPassPerFrame() {
+        mHarness.layout.setDragMode(SlidingUpLayout.DRAG_MODE_LAYOUT);
+        // One pass per frame of the drag and one for the release, the hold and the bounce only draw.
+        final int drawnFrames = frames(1200 + 200 + 2 * SlidingUpLayout.DEFAULT_ANIMATOR_DURATION);
+        mHarness.budget = new LayoutBudget(DRAG_FRAMES + 1, DRAG_FRAMES + 1, CHILDREN * (DRAG_FRAMES + 1),
+                DRAWN_CHILDREN * drawnFrames);
+
+        mHarness.drag(750, 450, 300, 1200, 200);
+        mHarness.release();
+
+        assertSettledWithinBudget();
+        assertTrue(mHarness.slideView.layoutCount <= DRAG_FRAMES + 1);
+        assertEquals(mHarness.getFrameCount(), mHarness.slideView.drawCount);
+    }
+
+    @Test
+    public void springFlingSettlesWithOneLayoutPass() {
+        mHarness.layout.setDragMode(SlidingUpLayout.DRAG_MODE_OFFSET);
+        mHarness.layout.setSpringEnabled(true);
+        mHarness.budget = new LayoutBudget(1, 1, CHILDREN);
+
+        // 1500 pixels per second up.
+        mHarness.drag(750, 450, 20, 200, 0);
+        mHarness.release();
+
+        assertSettledWithinBudget();
+        assertEquals(PanelHarness.MAX_HEIGHT, mHarness.slideView.getHeight());
+        assertEquals(1, mHarness.slideView.layoutCount);
+    }
+
+    @Test
+    public void flingSettlesWithOneLayoutPass() {
+        mHarness.layout.setDragMode(SlidingUpLayout.DRAG_MODE_OFFSET);
+        // The scroller reaches the bound well within the duration of an animator.
+        mHarness.budget = new LayoutBudget(1, 1, CHILDREN,
+                DRAWN_CHILDREN * frames(200 + SlidingUpLayout.DEFAULT_ANIMATOR_DURATION));
+
+        // 1500 pixels per second up, settled by the scroller on the virtual clock.
+        mHarness.drag(750, 450, 20, 200, 0);
+        mHarness.release();
+
+        assertSettledWithinBudget();
+        assertEquals(PanelHarness.MAX_HEIGHT, mHarness.slideView.getHeight());
+        assertEquals(1, mHarness.slideView.layoutCount);
+    }
+
+    @Test
+    public void snapSettlesWithOneLayoutPass() {
+        mHarness.layout.setDragMode(SlidingUpLayout.DRAG_MODE_OFFSET);
+        mHarness.layout.setSnapToBounds(true);
+        mHarness.settle();
+        mHarness.resetCounts();
+        mHarness.budget = new LayoutBudget(1, 1, CHILDREN);
+
+        // Slow release closer to the expanded panel.
+        mHarness.drag(750, 450, 60, 600, 200);
+        mHarness.release();
+
+        assertSettledWithinBudget();
+        assertEquals(PanelHarness.MAX_HEIGHT, mHarness.slideView.getHeight());
+    }
+
+    @Test
+    public void bindStateRunsOneLayoutPass() {
+        mHarness.budget = new LayoutBudget(1, 1, CHILDREN);
+
+        mHarness.layout.bindState(400, PanelHarness.MIN_HEIGHT, PanelHarness.MAX_HEIGHT);
+        mHarness.settle();
+
+        assertSettledWithinBudget();
+        assertEquals(400, mHarness.slideView.getHeight());
+        assertEquals(1, mHarness.slideView.measureCount);
+        assertEquals(1, mHarness.upperView.measureCount);
+    }
+
+    @Test
+    public void bindStateAtTheSameHeightDoesNotMeasureTheChildren() {
+        mHarness.layout.bindState(PanelHarness.SLIDE_HEIGHT, PanelHarness.MIN_HEIGHT, PanelHarness.MAX_HEIGHT);
+        mHarness.settle();
+
+        assertEquals(0, mHarness.slideView.measureCount);
+        assertEquals(0, mHarness.upperView.measureCount);
+    }
+
+    /**
+     * @return frames of the harness in {@code millis}, counting the one it starts with
+     */
+    private static int frames(long millis) {
+        return (int) (millis * 1000000L / SlidingUpLayout.DEFAULT_FRAME_INTERVAL_NANOS) + 1;
+    }
+
+    private void assertSettledWithinBudget() {
+        assertFalse(mHarness.layout.hasPendingFrame());
+        assertEquals(SlidingUpLayout.STATE_IDLE, mHarness.layout.getPanelState());
+        assertEquals(1, mHarness.reportCount);
+        assertTrue(mHarness.metrics, mHarness.budgetMet);
+    }
+}
@@ -0,0 +1,129 @@
+package com.readboy.slidinguppanel.views;
+
+import android.view.MotionEvent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drag work of a {@link SlidingUpLayout} with the subtrees of {@link SlidingUpLayoutBenchmark},
+ * each frame runs the frame callbacks and then the measure and layout passes it requested.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(0)
+public class SlidingUpLayoutDragBenchmark {
+
+    /**
+     * Number of move events in a drag, 4 ms apart.
+     */
+    private static final int DRAG_EVENTS = 300;
+    private static final long EVENT_INTERVAL_MILLIS = 4;
+    private static final float DRAG_DISTANCE = 300;
+    private static final float TOUCH_X = PanelHarness.WIDTH / 2;
+    private static final int MAX_SETTLE_FRAMES = 600;
+
+    @Param({"1", "8"})
+    public int depth;
+
+    @Param({"2", "8"})
+    public int weightedChildren;
+
+    @Param({"layout", "offset"})
+    public String dragMode;
+
+    private SlidingUpLayout mLayout;
+    private long mFrameTimeNanos = 1000000000L;
+    private long mDownTime;
+    private int mSlideStep = 8;
+    private boolean mDragUp = true;
+
+    @Setup
+    public void setUp() {
+        mLayout = SlidingUpLayoutBenchmark.newPanel(RuntimeEnvironment.application, depth, weightedChildren);
+        mLayout.setDragMode("offset".equals(dragMode)
+                ? SlidingUpLayout.DRAG_MODE_OFFSET : SlidingUpLayout.DRAG_MODE_LAYOUT);
+        SlidingUpLayoutBenchmark.measureAndLayout(mLayout);
+
+        // A settled gesture leaves the top slideUp() moves the panel from.
+        gesture(PanelHarness.HEIGHT - PanelHarness.SLIDE_HEIGHT / 4, -DRAG_DISTANCE / 10, DRAG_EVENTS / 10);
+    }
+
+    /**
+     * Move the panel by a few pixels and run the passes it requested, alternating up and down.
+     */
+    @Benchmark
+    public int slideUp() {
+        mSlideStep = -mSlideStep;
+        mLayout.slideUp(mSlideStep);
+        SlidingUpLayoutBenchmark.measureAndLayout(mLayout);
+        return mLayout.getChildAt(0).getBottom();
+    }
+
+    /**
+     * Drag the slide view by 300 pixels in 300 move events, release it and run frames until it
+     * has settled. The drags alternate between up and down, so every one starts on the slide view.
+     */
+    @Benchmark
+    public int drag() {
+        final float fromY = mDragUp ? PanelHarness.HEIGHT - PanelHarness.SLIDE_HEIGHT / 4
+                : PanelHarness.HEIGHT - PanelHarness.SLIDE_HEIGHT / 4 - DRAG_DISTANCE;
+        final float distance = mDragUp ? -DRAG_DISTANCE : DRAG_DISTANCE;
+        mDragUp = !mDragUp;
+
+        gesture(fromY, distance, DRAG_EVENTS);
+        return mLayout.getChildAt(0).getBottom();
+    }
+
+    /**
+     * Touch the layout at {@code fromY}, move by {@code distance} in {@code moves} events, release
+     * and run frames until the panel has settled.
+     */
+    private void gesture(float fromY, float distance, int moves) {
+        mDownTime = getTimeMillis();
+        dispatch(MotionEvent.ACTION_DOWN, fromY, mDownTime);
+        for (int i = 1; i <= moves; i++) {
+            dispatch(MotionEvent.ACTION_MOVE, fromY + distance * i / moves, mDownTime + EVENT_INTERVAL_MILLIS * i);
+        }
+        dispatch(MotionEvent.ACTION_UP, fromY + distance, mDownTime + EVENT_INTERVAL_MILLIS * moves);
+
+        for (int i = 0; i < MAX_SETTLE_FRAMES && mLayout.hasPendingFrame(); i++) {
+            frame();
+        }
+    }
+
+    private void dispatch(int action, float y, long timeMillis) {
+        while (mFrameTimeNanos <= timeMillis * 1000000L) {
+            frame();
+        }
+
+        final MotionEvent ev = MotionEvent.obtain(mDownTime, timeMillis, action, TOUCH_X, y, 0);
+        mLayout.dispatchTouchEvent(ev);
+        ev.recycle();
+    }
+
+    private long getTimeMillis() {
+        return mFrameTimeNanos / 1000000L;
+    }
+
+    private void frame() {
+        mLayout.doVirtualFrame(mFrameTimeNanos);
+        SlidingUpLayoutBenchmark.measureAndLayout(mLayout);
+        mFrameTimeNanos += SlidingUpLayout.DEFAULT_FRAME_INTERVAL_NANOS;
+    }
+}
@@ -0,0 +1,151 @@
+package com.readboy.slidinguppanel.views;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class SlidingUpLayoutTest {
+
+    private PanelHarness mHarness;
+
+    @Before
+    public void setUp() {
+        mHarness = new PanelHarness(RuntimeEnvironment.application);
+    }
+
+    @Test
+    public void predictionIsDroppedOnceTheFingerStops() {
+        final PanelHarness unpredicted = new PanelHarness(RuntimeEnvironment.application);
+        unpredicted.layout.setDragMode(SlidingUpLayout.DRAG_MODE_OFFSET);
+        unpredicted.drag(750, 550, 20, 200, 0);
+        unpredicted.settle();
+        mHarness.layout.setDragMode(SlidingUpLayout.DRAG_MODE_OFFSET);
+        mHarness.layout.setMotionPredictionEnabled(true);
+
+        mHarness.drag(750, 550, 20, 200, 0);
+        mHarness.settle();
+
+        // The finger is still down, the panel rests where it is.
+        assertFalse(mHarness.layout.hasPendingFrame());
+        assertEquals(unpredicted.slideView.getTop(), mHarness.slideView.getTop());
+    }
+
+    @Test
+    public void boundStateRevealsTheDeferredContent() {
+        final SlidingUpLayout layout = newDeferredPanel(RuntimeEnvironment.application);
+        measureAndLayout(layout);
+        assertNull(layout.getSlideContentView());
+
+        layout.bindState(500, PanelHarness.MIN_HEIGHT, PanelHarness.MAX_HEIGHT);
+        measureAndLayout(layout);
+
+        assertNotNull(layout.getSlideContentView());
+    }
+
+    @Test
+    public void showingAGoneUpperViewSetsUpTheDragger() {
+        final Context context = RuntimeEnvironment.application;
+        final SlidingUpLayout layout = new SlidingUpLayout(context);
+        final View upperView = new View(context);
+        upperView.setVisibility(View.GONE);
+        layout.addView(upperView, new SlidingUpLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 0, 1f));
+        layout.addView(new View(context),
+                new SlidingUpLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, PanelHarness.SLIDE_HEIGHT));
+        measureAndLayout(layout);
+        assertFalse(layout.hasDragger);
+
+        upperView.setVisibility(View.VISIBLE);
+
+        assertTrue(layout.hasDragger);
+        assertEquals(layout.mDraggerBtn, layout.getChildAt(1));
+    }
+
+    @Test
+    public void removedStackedPanelIsNoLongerLaidOut() {
+        final Context context = RuntimeEnvironment.application;
+        final SlidingUpLayout layout = new SlidingUpLayout(context);
+        final View removedPanel = new View(context);
+        final View keptPanel = new View(context);
+        layout.addView(new View(context), new SlidingUpLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 0, 1f));
+        layout.addView(removedPanel, new SlidingUpLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 100));
+        layout.addView(keptPanel, new SlidingUpLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 100));
+        layout.addView(new View(context),
+                new SlidingUpLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, PanelHarness.SLIDE_HEIGHT));
+        measureAndLayout(layout);
+
+        layout.removeView(removedPanel);
+        measureAndLayout(layout);
+
+        assertEquals(1, layout.getStackedPanelCount());
+        assertEquals(-1, ((SlidingUpLayout.LayoutParams) removedPanel.getLayoutParams()).stackIndex);
+        assertEquals(0, ((SlidingUpLayout.LayoutParams) keptPanel.getLayoutParams()).stackIndex);
+    }
+
+    @Test
+    public void slideIsNotDispatchedBeforeTheFirstLayout() {
+        final Context context = RuntimeEnvironment.application;
+        final SlidingUpLayout layout = new SlidingUpLayout(context);
+        layout.addView(new View(context), new SlidingUpLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 0, 1f));
+        layout.addView(new View(context),
+                new SlidingUpLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, PanelHarness.SLIDE_HEIGHT));
+        layout.setMinHeight(PanelHarness.MIN_HEIGHT);
+        layout.setVirtualFrames(true);
+        final int[] offsets = new int[2];
+        final int[] slideCount = new int[1];
+        layout.addPanelSlideListener(new SlidingUpLayout.PanelSlideListener() {
+            @Override
+            public void onSlide(float fraction, int offsetPx) {
+                offsets[slideCount[0]++] = offsetPx;
+            }
+
+            @Override
+            public void onStateChanged(int state) {
+            }
+        });
+
+        layout.doVirtualFrame(SlidingUpLayout.DEFAULT_FRAME_INTERVAL_NANOS);
+        assertEquals(0, slideCount[0]);
+
+        measureAndLayout(layout);
+        layout.doVirtualFrame(2 * SlidingUpLayout.DEFAULT_FRAME_INTERVAL_NANOS);
+
+        assertEquals(1, slideCount[0]);
+        assertEquals(PanelHarness.SLIDE_HEIGHT - PanelHarness.MIN_HEIGHT, offsets[0]);
+    }
+
+    /**
+     * @return a panel at its min height that defers the content of its slide view
+     */
+    private static SlidingUpLayout newDeferredPanel(Context context) {
+        final SlidingUpLayout layout = new SlidingUpLayout(context);
+        layout.setSlideContentLayout(android.R.layout.simple_list_item_1);
+        layout.addView(new View(context), new SlidingUpLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 0, 1f));
+        layout.addView(new FrameLayout(context),
+                new SlidingUpLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, PanelHarness.MIN_HEIGHT));
+        layout.setMinHeight(PanelHarness.MIN_HEIGHT);
+        layout.setMaxHeight(PanelHarness.MAX_HEIGHT);
+        return layout;
+    }
+
+    private static void measureAndLayout(SlidingUpLayout layout) {
+        layout.measure(View.MeasureSpec.makeMeasureSpec(PanelHarness.WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(PanelHarness.HEIGHT, View.MeasureSpec.EXACTLY));
+        layout.layout(0, 0, PanelHarness.WIDTH, PanelHarness.HEIGHT);
+    }
+}